@@ -0,0 +1,125 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pennant.prodmtr.Dao.Interface.TaskFetchProfile;
+import com.pennant.prodmtr.model.Dto.UserDto;
+import com.pennant.prodmtr.model.Entity.FunctionalUnit;
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.SprintTasks;
+import com.pennant.prodmtr.model.Entity.Task;
+
+// Asynchronous facade over SprintDaoImpl for pages that issue several independent reads, such as the
+// sprint dashboard. Every call runs on the executor in its own read-only transaction, so the reads
+// overlap and the page waits roughly as long as the slowest one. At most maxConcurrency calls hold a
+// connection at once; keep it below the connection pool size so request threads are not starved.
+//
+// Results come back detached: only state loaded by the query itself is available to the caller, so
+// task reads for a page take a TaskFetchProfile that fetches everything the page renders.
+// On Java 21 a virtual-thread executor (Executors.newVirtualThreadPerTaskExecutor()) can be passed in;
+// the concurrency limit still applies.
+public class AsyncSprintDao implements AutoCloseable {
+
+	private final SprintDaoImpl sprintDao;
+	private final TransactionTemplate readOnlyTransaction;
+	private final ExecutorService executor;
+	private final Semaphore permits;
+
+	public AsyncSprintDao(SprintDaoImpl sprintDao, PlatformTransactionManager transactionManager, int maxConcurrency) {
+	    this(sprintDao, transactionManager, Executors.newFixedThreadPool(maxConcurrency, daemonThreads()),
+	            maxConcurrency);
+	}
+
+	public AsyncSprintDao(SprintDaoImpl sprintDao, PlatformTransactionManager transactionManager,
+	        ExecutorService executor, int maxConcurrency) {
+	    if (maxConcurrency <= 0) {
+	        throw new IllegalArgumentException("Concurrency limit must be positive: " + maxConcurrency);
+	    }
+	    this.sprintDao = sprintDao;
+	    this.executor = executor;
+	    this.permits = new Semaphore(maxConcurrency);
+	    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+	    this.readOnlyTransaction.setReadOnly(true);
+	    this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	public CompletableFuture<Sprint> getSprintDetails(int sprintId) {
+	    return submit(() -> sprintDao.getSprintDetails(sprintId));
+	}
+
+	public CompletableFuture<List<SprintTasks>> getAllTasksBySprintId(Sprint sprintId) {
+	    return submit(() -> sprintDao.getAllTasksBySprintId(sprintId));
+	}
+
+	// Use BOARD for the dashboard: the results are detached, so any association the profile does not
+	// fetch throws LazyInitializationException when the page touches it
+	public CompletableFuture<List<SprintTasks>> getAllTasksBySprintId(Sprint sprintId, TaskFetchProfile profile) {
+	    return submit(() -> sprintDao.getAllTasksBySprintId(sprintId, profile));
+	}
+
+	public CompletableFuture<List<UserDto>> getAllResources() {
+	    return submit(sprintDao::getAllResources);
+	}
+
+	public CompletableFuture<List<FunctionalUnit>> getFunctionalUnitsByModId(int modlId, int prjid) {
+	    return submit(() -> sprintDao.getFunctionalUnitsByModId(modlId, prjid));
+	}
+
+	public CompletableFuture<List<Task>> getTasks(int modlId) {
+	    return submit(() -> sprintDao.getTasks(modlId));
+	}
+
+	public CompletableFuture<List<Task>> getTasks(int modlId, TaskFetchProfile profile) {
+	    return submit(() -> sprintDao.getTasks(modlId, profile));
+	}
+
+	public CompletableFuture<List<Sprint>> getSprintByProjId(int projId) {
+	    return submit(() -> sprintDao.getSprintByProjId(projId));
+	}
+
+	public CompletableFuture<List<Sprint>> getBaskLogs() {
+	    return submit(sprintDao::getBaskLogs);
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> read) {
+	    return CompletableFuture.supplyAsync(() -> {
+	        try {
+	            permits.acquire();
+	        } catch (InterruptedException e) {
+	            Thread.currentThread().interrupt();
+	            throw new CompletionException(e);
+	        }
+	        try {
+	            return readOnlyTransaction.execute(status -> read.get());
+	        } finally {
+	            permits.release();
+	        }
+	    }, executor);
+	}
+
+	@Override
+	public void close() {
+	    executor.shutdown();
+	}
+
+	private static ThreadFactory daemonThreads() {
+	    AtomicInteger counter = new AtomicInteger();
+	    return runnable -> {
+	        Thread thread = new Thread(runnable, "async-sprint-dao-" + counter.incrementAndGet());
+	        thread.setDaemon(true);
+	        return thread;
+	    };
+	}
+}
@@ -0,0 +1,39 @@
+package com.pennant.prodmtr.model.Dto;
+
+// Backlog row: a sprint together with the number of still-open tasks on its module
+public class BacklogSprintDTO {
+
+	private final int sprintId;
+	private final int moduleId;
+	private final int projectId;
+	private final long openTaskCount;
+
+	public BacklogSprintDTO(int sprintId, int moduleId, int projectId, long openTaskCount) {
+	    this.sprintId = sprintId;
+	    this.moduleId = moduleId;
+	    this.projectId = projectId;
+	    this.openTaskCount = openTaskCount;
+	}
+
+	public int getSprintId() {
+	    return sprintId;
+	}
+
+	public int getModuleId() {
+	    return moduleId;
+	}
+
+	public int getProjectId() {
+	    return projectId;
+	}
+
+	public long getOpenTaskCount() {
+	    return openTaskCount;
+	}
+
+	@Override
+	public String toString() {
+	    return "BacklogSprintDTO [sprintId=" + sprintId + ", moduleId=" + moduleId + ", projectId=" + projectId
+	            + ", openTaskCount=" + openTaskCount + "]";
+	}
+}
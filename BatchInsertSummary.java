@@ -0,0 +1,49 @@
+package com.pennant.prodmtr.model.Dto;
+
+import java.util.Arrays;
+
+// Outcome of a bulk store: how many rows went into each flushed batch and how long each flush took
+public class BatchInsertSummary {
+
+	private final int[] batchSizes;
+	private final long[] batchMillis;
+
+	public BatchInsertSummary(int[] batchSizes, long[] batchMillis) {
+	    this.batchSizes = batchSizes;
+	    this.batchMillis = batchMillis;
+	}
+
+	public int getBatchCount() {
+	    return batchSizes.length;
+	}
+
+	public int getTotalRows() {
+	    int total = 0;
+	    for (int size : batchSizes) {
+	        total += size;
+	    }
+	    return total;
+	}
+
+	public long getTotalMillis() {
+	    long total = 0;
+	    for (long millis : batchMillis) {
+	        total += millis;
+	    }
+	    return total;
+	}
+
+	public int[] getBatchSizes() {
+	    return batchSizes.clone();
+	}
+
+	public long[] getBatchMillis() {
+	    return batchMillis.clone();
+	}
+
+	@Override
+	public String toString() {
+	    return "BatchInsertSummary [totalRows=" + getTotalRows() + ", batchSizes=" + Arrays.toString(batchSizes)
+	            + ", batchMillis=" + Arrays.toString(batchMillis) + "]";
+	}
+}
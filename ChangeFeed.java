@@ -0,0 +1,43 @@
+package com.pennant.prodmtr.model.Dto;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Rows inserted or updated since the previous poll, plus the position to pass on the next poll: the
+// newest lastModified seen so far and the keys (id and version) of the rows already returned from the
+// window that the next poll reads again
+public class ChangeFeed<T> {
+
+	private final List<T> changes;
+	private final Timestamp watermark;
+	private final Set<Object> deliveredKeys;
+
+	public ChangeFeed(List<T> changes, Timestamp watermark, Set<Object> deliveredKeys) {
+	    this.changes = changes;
+	    this.watermark = watermark;
+	    this.deliveredKeys = Collections.unmodifiableSet(deliveredKeys);
+	}
+
+	// Position for a first poll returning the rows modified after since (null for everything)
+	public static <T> ChangeFeed<T> startingAt(Timestamp since) {
+	    return new ChangeFeed<>(Collections.<T>emptyList(), since, Collections.emptySet());
+	}
+
+	public List<T> getChanges() {
+	    return changes;
+	}
+
+	public Timestamp getWatermark() {
+	    return watermark;
+	}
+
+	public Set<Object> getDeliveredKeys() {
+	    return deliveredKeys;
+	}
+
+	public boolean isEmpty() {
+	    return changes.isEmpty();
+	}
+}
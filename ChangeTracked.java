@@ -0,0 +1,13 @@
+package com.pennant.prodmtr.model.Entity;
+
+import java.sql.Timestamp;
+
+// Implemented by entities that carry a last-modified column (Sprint, Task, SprintTasks). SprintDaoImpl
+// stamps it on every store so that change feeds can select only the rows modified after a watermark.
+// The mapped attribute must be named lastModified and should be indexed.
+public interface ChangeTracked {
+
+	Timestamp getLastModified();
+
+	void setLastModified(Timestamp lastModified);
+}
@@ -0,0 +1,160 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Small bounded LRU cache with a per-entry time-to-live, used by SprintDaoImpl in front of lookups
+// that are read far more often than they change. Callers check getIfPresent and put the loaded value
+// on a miss, so two concurrent misses on the same key may both go to the database.
+//
+// A value loaded before a concurrent invalidation must not be put afterwards, or it stays until the
+// TTL runs out. Callers read generation() before loading and pass it to put; every invalidation bumps
+// the generation, and put drops values loaded under an older one.
+public class LruTtlCache<K, V> {
+
+	private final String name;
+	private final int maxSize;
+	private final long ttlNanos;
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	// Guarded by this
+	private long generation;
+
+	LruTtlCache(String name, int maxSize, long ttlMillis) {
+	    if (maxSize <= 0 || ttlMillis <= 0) {
+	        throw new IllegalArgumentException("Cache size and TTL must be positive.");
+	    }
+	    this.name = name;
+	    this.maxSize = maxSize;
+	    this.ttlNanos = ttlMillis * 1_000_000L;
+	    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	synchronized V getIfPresent(K key) {
+	    Entry<V> entry = entries.get(key);
+	    if (entry == null) {
+	        misses.incrementAndGet();
+	        return null;
+	    }
+	    if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+	        entries.remove(key);
+	        evictions.incrementAndGet();
+	        misses.incrementAndGet();
+	        return null;
+	    }
+	    hits.incrementAndGet();
+	    return entry.value;
+	}
+
+	// Read before loading a value and pass to put
+	synchronized long generation() {
+	    return generation;
+	}
+
+	// Null values are ignored so that missing rows are looked up again next time, and so are values
+	// loaded before the latest invalidation
+	synchronized void put(K key, V value, long loadGeneration) {
+	    if (value == null || loadGeneration != generation) {
+	        return;
+	    }
+	    entries.put(key, new Entry<>(value, System.nanoTime()));
+	    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+	    while (entries.size() > maxSize && eldest.hasNext()) {
+	        eldest.next();
+	        eldest.remove();
+	        evictions.incrementAndGet();
+	    }
+	}
+
+	synchronized void invalidate(K key) {
+	    generation++;
+	    if (entries.remove(key) != null) {
+	        invalidations.incrementAndGet();
+	    }
+	}
+
+	synchronized void invalidateAll() {
+	    generation++;
+	    invalidations.addAndGet(entries.size());
+	    entries.clear();
+	}
+
+	synchronized int size() {
+	    return entries.size();
+	}
+
+	Stats stats() {
+	    return new Stats(name, size(), hits.get(), misses.get(), evictions.get(), invalidations.get());
+	}
+
+	private static final class Entry<V> {
+	    final V value;
+	    final long loadedAt;
+
+	    Entry(V value, long loadedAt) {
+	        this.value = value;
+	        this.loadedAt = loadedAt;
+	    }
+	}
+
+	// Point-in-time counters of one cache; evictions cover both size and TTL evictions
+	public static final class Stats {
+	    private final String name;
+	    private final int size;
+	    private final long hits;
+	    private final long misses;
+	    private final long evictions;
+	    private final long invalidations;
+
+	    Stats(String name, int size, long hits, long misses, long evictions, long invalidations) {
+	        this.name = name;
+	        this.size = size;
+	        this.hits = hits;
+	        this.misses = misses;
+	        this.evictions = evictions;
+	        this.invalidations = invalidations;
+	    }
+
+	    public String getName() {
+	        return name;
+	    }
+
+	    public int getSize() {
+	        return size;
+	    }
+
+	    public long getHits() {
+	        return hits;
+	    }
+
+	    public long getMisses() {
+	        return misses;
+	    }
+
+	    public long getEvictions() {
+	        return evictions;
+	    }
+
+	    public long getInvalidations() {
+	        return invalidations;
+	    }
+
+	    public double getHitRatio() {
+	        long requests = hits + misses;
+	        return requests == 0 ? 0.0 : (double) hits / requests;
+	    }
+
+	    @Override
+	    public String toString() {
+	        return name + " [size=" + size + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+	                + ", invalidations=" + invalidations + "]";
+	    }
+	}
+}
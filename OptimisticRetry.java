@@ -0,0 +1,54 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import javax.persistence.OptimisticLockException;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+// Re-runs a unit of work that lost an optimistic-lock race. The unit of work must start its own
+// transaction (call a transactional service method, not a DAO method inside an open transaction),
+// and must re-read whatever state it bases its changes on, otherwise the retry fails the same way.
+public final class OptimisticRetry {
+
+	private static final long BASE_BACKOFF_MILLIS = 10;
+
+	private OptimisticRetry() {
+	}
+
+	public static <T> T withRetry(int maxAttempts, Supplier<T> unitOfWork) {
+	    if (maxAttempts <= 0) {
+	        throw new IllegalArgumentException("Attempts must be positive: " + maxAttempts);
+	    }
+	    for (int attempt = 1;; attempt++) {
+	        try {
+	            return unitOfWork.get();
+	        } catch (RuntimeException e) {
+	            if (attempt >= maxAttempts || !isOptimisticLockFailure(e)) {
+	                throw e;
+	            }
+	            backOff(attempt);
+	        }
+	    }
+	}
+
+	public static boolean isOptimisticLockFailure(Throwable error) {
+	    for (Throwable t = error; t != null; t = t.getCause()) {
+	        if (t instanceof OptimisticLockException || t instanceof OptimisticLockingFailureException) {
+	            return true;
+	        }
+	    }
+	    return false;
+	}
+
+	// Short randomised pause so that competing planners do not collide again straight away
+	private static void backOff(int attempt) {
+	    try {
+	        Thread.sleep(BASE_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS));
+	    } catch (InterruptedException e) {
+	        Thread.currentThread().interrupt();
+	        throw new IllegalStateException("Interrupted while waiting to retry.", e);
+	    }
+	}
+}
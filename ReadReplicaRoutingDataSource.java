@@ -0,0 +1,100 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections for read-only transactions (the @Transactional(readOnly = true) query methods of
+// SprintDaoImpl) to a read replica and everything else to the primary. Without a replica all
+// connections go to the primary.
+//
+// The transaction manager opens the JDBC connection before it marks the transaction read-only, so
+// this data source has to sit behind a LazyConnectionDataSourceProxy, which defers the real
+// connection until the first statement. Use create(...) to get that combination.
+//
+// Reads whose results are cached must not come from the replica, or replication lag ends up in the
+// cache until it is evicted. Such loads run inside readFromPrimary; a connection taken there goes to
+// the primary even in a read-only transaction. A transaction that already holds a replica connection
+// cannot switch, so callers check isReplicaConnectionBound() before caching what they read.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+	    PRIMARY, REPLICA
+	}
+
+	// Transaction resource key marking that the current transaction took a replica connection
+	private static final Object REPLICA_BOUND = new Object();
+
+	private static final ThreadLocal<Boolean> primaryRead = new ThreadLocal<>();
+
+	private final boolean replicaConfigured;
+
+	private ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+	    this.replicaConfigured = replica != null;
+	    Map<Object, Object> targets = new HashMap<>();
+	    targets.put(Route.PRIMARY, primary);
+	    if (replica != null) {
+	        targets.put(Route.REPLICA, replica);
+	    }
+	    setTargetDataSources(targets);
+	    setDefaultTargetDataSource(primary);
+	    afterPropertiesSet();
+	}
+
+	// Data source to hand to the EntityManagerFactory; replica may be null
+	public static DataSource create(DataSource primary, DataSource replica) {
+	    if (primary == null) {
+	        throw new IllegalArgumentException("A primary data source is required.");
+	    }
+	    return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica));
+	}
+
+	// Runs read with any connection it takes routed to the primary
+	public static <T> T readFromPrimary(Supplier<T> read) {
+	    Boolean previous = primaryRead.get();
+	    primaryRead.set(Boolean.TRUE);
+	    try {
+	        return read.get();
+	    } finally {
+	        if (previous == null) {
+	            primaryRead.remove();
+	        }
+	    }
+	}
+
+	// True when the current transaction reads from the replica, so its results may lag the primary
+	public static boolean isReplicaConnectionBound() {
+	    return TransactionSynchronizationManager.hasResource(REPLICA_BOUND);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+	    if (replicaConfigured && primaryRead.get() == null
+	            && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+	        markReplicaBound();
+	        return Route.REPLICA;
+	    }
+	    return Route.PRIMARY;
+	}
+
+	private static void markReplicaBound() {
+	    if (!TransactionSynchronizationManager.isSynchronizationActive()
+	            || TransactionSynchronizationManager.hasResource(REPLICA_BOUND)) {
+	        return;
+	    }
+	    TransactionSynchronizationManager.bindResource(REPLICA_BOUND, Boolean.TRUE);
+	    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+	        @Override
+	        public void afterCompletion(int status) {
+	            TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_BOUND);
+	        }
+	    });
+	}
+}
@@ -0,0 +1,146 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNoException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Routes a SprintDaoImpl through ReadReplicaRoutingDataSource onto two embedded H2 databases seeded
+// with different volumes, so the size of a result shows which database answered. The replica lags:
+// it holds fewer sprints and resources than the primary. Needs the benchmark Environment named by
+// -Dsprintdao.bench.environment with entityManagerFactory(DataSource) support, and is skipped without.
+public class ReadReplicaRoutingTest {
+
+	private static final int PRIMARY_SPRINTS = 4;
+	private static final int PRIMARY_RESOURCES = 6;
+	private static final int REPLICA_SPRINTS = 2;
+	private static final int REPLICA_RESOURCES = 3;
+
+	private static EmbeddedDatabase primary;
+	private static EmbeddedDatabase replica;
+	private static EntityManagerFactory replicaEntityManagerFactory;
+	private static EntityManagerFactory routedEntityManagerFactory;
+	private static SprintDaoImpl sprintDao;
+	private static SprintDaoBenchmark.Fixture fixture;
+	private static TransactionTemplate readOnly;
+	private static TransactionTemplate readWrite;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+	    SprintDaoBenchmark.Environment environment;
+	    try {
+	        environment = SprintDaoBenchmark.environment();
+	    } catch (IllegalStateException e) {
+	        assumeNoException(e);
+	        return;
+	    }
+	    primary = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName("sprintdao-primary").build();
+	    replica = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName("sprintdao-replica").build();
+	    DataSource routed = ReadReplicaRoutingDataSource.create(primary, replica);
+	    try {
+	        // Outside a transaction every connection goes to the primary, so the schema and the
+	        // primary's rows are created through the routed factory
+	        routedEntityManagerFactory = environment.entityManagerFactory(routed);
+	    } catch (UnsupportedOperationException e) {
+	        assumeNoException(e);
+	        return;
+	    }
+	    replicaEntityManagerFactory = environment.entityManagerFactory(replica);
+	    fixture = seed(environment, routedEntityManagerFactory, PRIMARY_SPRINTS, PRIMARY_RESOURCES);
+	    seed(environment, replicaEntityManagerFactory, REPLICA_SPRINTS, REPLICA_RESOURCES);
+
+	    // What the Spring context does: a transaction-bound shared EntityManager and a JPA transaction manager
+	    sprintDao = SprintDaoBenchmark.newSprintDao(
+	            SharedEntityManagerCreator.createSharedEntityManager(routedEntityManagerFactory));
+	    JpaTransactionManager transactionManager = new JpaTransactionManager(routedEntityManagerFactory);
+	    readOnly = new TransactionTemplate(transactionManager);
+	    readOnly.setReadOnly(true);
+	    readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	private static SprintDaoBenchmark.Fixture seed(SprintDaoBenchmark.Environment environment,
+	        EntityManagerFactory entityManagerFactory, int sprints, int resources) {
+	    EntityManager entityManager = entityManagerFactory.createEntityManager();
+	    try {
+	        return environment.seed(entityManager, sprints, 1, resources);
+	    } finally {
+	        entityManager.close();
+	    }
+	}
+
+	@AfterClass
+	public static void tearDown() {
+	    if (routedEntityManagerFactory != null) {
+	        routedEntityManagerFactory.close();
+	    }
+	    if (replicaEntityManagerFactory != null) {
+	        replicaEntityManagerFactory.close();
+	    }
+	    if (primary != null) {
+	        primary.shutdown();
+	    }
+	    if (replica != null) {
+	        replica.shutdown();
+	    }
+	}
+
+	@Before
+	public void emptyCaches() {
+	    sprintDao.invalidateCaches();
+	}
+
+	@Test
+	public void readOnlyTransactionReadsFromReplica() {
+	    int sprints = readOnly.execute(status -> sprintDao.getAllSprints().size());
+	    assertEquals(REPLICA_SPRINTS, sprints);
+	}
+
+	@Test
+	public void readWriteTransactionReadsFromPrimary() {
+	    int sprints = readWrite.execute(status -> sprintDao.getAllSprints().size());
+	    assertEquals(PRIMARY_SPRINTS, sprints);
+	}
+
+	@Test
+	public void writeGoesToPrimary() {
+	    int sprints = readWrite.execute(status -> {
+	        status.setRollbackOnly();
+	        sprintDao.storeSprint(fixture.newSprint());
+	        return sprintDao.getAllSprints().size();
+	    });
+	    assertEquals(PRIMARY_SPRINTS + 1, sprints);
+	}
+
+	// getAllResources fills a cache, so its load runs in readFromPrimary even in a read-only transaction
+	@Test
+	public void cacheFillingLoadReadsFromPrimary() {
+	    int resources = readOnly.execute(status -> sprintDao.getAllResources().size());
+	    assertEquals(PRIMARY_RESOURCES, resources);
+	    assertEquals(PRIMARY_RESOURCES, sprintDao.getAllResources().size());
+	}
+
+	// Once a transaction holds a replica connection, readFromPrimary cannot switch it. The load then
+	// sees the replica's rows, which must be returned but not cached for later callers.
+	@Test
+	public void replicaBoundTransactionDoesNotFillCache() {
+	    int resources = readOnly.execute(status -> {
+	        sprintDao.getAllSprints();
+	        return sprintDao.getAllResources().size();
+	    });
+	    assertEquals(REPLICA_RESOURCES, resources);
+	    assertEquals(PRIMARY_RESOURCES, sprintDao.getAllResources().size());
+	}
+}
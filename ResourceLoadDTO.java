@@ -0,0 +1,28 @@
+package com.pennant.prodmtr.model.Dto;
+
+// Open tasks per SprintResource of one sprint that has any, ordered by user id. Arrays are parallel:
+// openTasks[i] belongs to userIds[i].
+public class ResourceLoadDTO {
+
+	private final int sprintId;
+	private final int[] userIds;
+	private final long[] openTasks;
+
+	public ResourceLoadDTO(int sprintId, int[] userIds, long[] openTasks) {
+	    this.sprintId = sprintId;
+	    this.userIds = userIds;
+	    this.openTasks = openTasks;
+	}
+
+	public int getSprintId() {
+	    return sprintId;
+	}
+
+	public int[] getUserIds() {
+	    return userIds.clone();
+	}
+
+	public long[] getOpenTasks() {
+	    return openTasks.clone();
+	}
+}
@@ -0,0 +1,150 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import com.pennant.prodmtr.model.Dto.SprintBoardSnapshot;
+
+// Holds one SprintBoardSnapshot per sprint behind an AtomicReference. Readers only do a map lookup, a
+// volatile read and a volatile write of the access time; writers swap in a new snapshot with
+// updateAndGet, so neither side ever blocks. Once maxBoards sprints are cached, installing another
+// board evicts the one read least recently.
+//
+// A board loaded from the database can be stale by the time it is installed if a write committed in
+// between. Every write bumps the generation before it runs and again when it publishes, and install
+// only succeeds if the generation the loader saw before its query is still current.
+//
+// Writes that bypass SprintDaoImpl (other services, scripts, manual fixes) are never seen here, so a
+// board is dropped once maxAgeMillis have passed since it was loaded from the database. Patching a
+// board after a write does not extend its age.
+class SprintBoardCache {
+
+	private static final class Board {
+	    final AtomicReference<SprintBoardSnapshot> snapshot = new AtomicReference<>();
+	    volatile long lastReadNanos = System.nanoTime();
+	    volatile long loadedNanos;
+	}
+
+	private final int maxBoards;
+	private final long maxAgeNanos;
+	private final ConcurrentHashMap<Integer, Board> boards = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	SprintBoardCache(int maxBoards, long maxAgeMillis) {
+	    if (maxBoards <= 0) {
+	        throw new IllegalArgumentException("Board cache size must be positive.");
+	    }
+	    if (maxAgeMillis <= 0) {
+	        throw new IllegalArgumentException("Board age limit must be positive.");
+	    }
+	    this.maxBoards = maxBoards;
+	    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+	}
+
+	SprintBoardSnapshot get(int sprintId) {
+	    Board board = boards.get(sprintId);
+	    if (board == null) {
+	        return null;
+	    }
+	    SprintBoardSnapshot snapshot = board.snapshot.get();
+	    long now = System.nanoTime();
+	    if (snapshot != null && now - board.loadedNanos >= maxAgeNanos) {
+	        board.snapshot.compareAndSet(snapshot, null);
+	        return null;
+	    }
+	    board.lastReadNanos = now;
+	    return snapshot;
+	}
+
+	// Read before loading a board and pass to install
+	long generation() {
+	    return generation.get();
+	}
+
+	// Marks a write in progress or just committed; boards loaded before this call will not be installed
+	void beginWrite() {
+	    generation.incrementAndGet();
+	}
+
+	boolean isEmpty() {
+	    return boards.isEmpty();
+	}
+
+	// Installs a freshly loaded board unless a write happened since loadGeneration was read
+	void install(int sprintId, SprintBoardSnapshot snapshot, long loadGeneration) {
+	    if (generation.get() != loadGeneration) {
+	        return;
+	    }
+	    Board board = boards.get(sprintId);
+	    if (board == null) {
+	        if (boards.size() >= maxBoards) {
+	            evict();
+	        }
+	        board = boards.computeIfAbsent(sprintId, id -> new Board());
+	    }
+	    long now = System.nanoTime();
+	    board.lastReadNanos = now;
+	    if (board.snapshot.get() == null) {
+	        // Stamped before the swap so that get never sees the new board with the old board's age
+	        board.loadedNanos = now;
+	    }
+	    if (board.snapshot.compareAndSet(null, snapshot) && generation.get() != loadGeneration) {
+	        // A write slipped in between the check and the install; drop the board we may have made stale
+	        board.snapshot.compareAndSet(snapshot, null);
+	    }
+	}
+
+	// Applies a change to every cached board; the operator returns the board unchanged if it is not affected
+	void updateAll(UnaryOperator<SprintBoardSnapshot> change) {
+	    generation.incrementAndGet();
+	    for (Board board : boards.values()) {
+	        board.snapshot.updateAndGet(snapshot -> snapshot == null ? null : change.apply(snapshot));
+	    }
+	}
+
+	// Applies a change to one sprint's board, if it is cached
+	void update(int sprintId, UnaryOperator<SprintBoardSnapshot> change) {
+	    generation.incrementAndGet();
+	    Board board = boards.get(sprintId);
+	    if (board != null) {
+	        board.snapshot.updateAndGet(snapshot -> snapshot == null ? null : change.apply(snapshot));
+	    }
+	}
+
+	void invalidate(int sprintId) {
+	    generation.incrementAndGet();
+	    Board board = boards.get(sprintId);
+	    if (board != null) {
+	        board.snapshot.set(null);
+	    }
+	}
+
+	void invalidateAll() {
+	    generation.incrementAndGet();
+	    for (Board board : boards.values()) {
+	        board.snapshot.set(null);
+	    }
+	}
+
+	// Drops the invalidated entries, then the least recently read boards until there is room for one
+	// more. A linear scan is fine at this size and only runs when a new sprint's board is installed.
+	private void evict() {
+	    boards.values().removeIf(board -> board.snapshot.get() == null);
+	    while (boards.size() >= maxBoards) {
+	        Map.Entry<Integer, Board> eldest = null;
+	        for (Map.Entry<Integer, Board> entry : boards.entrySet()) {
+	            if (eldest == null || entry.getValue().lastReadNanos - eldest.getValue().lastReadNanos < 0) {
+	                eldest = entry;
+	            }
+	        }
+	        if (eldest == null) {
+	            return;
+	        }
+	        boards.remove(eldest.getKey(), eldest.getValue());
+	    }
+	}
+}
@@ -0,0 +1,248 @@
+package com.pennant.prodmtr.model.Dto;
+
+import java.util.Arrays;
+
+// Immutable board state of one sprint: every task linked to the sprint through SprintTasks with its
+// completion time and assignee, the sprint's resources (SprintResource) and the tasks each resource
+// holds. Lookups are binary searches over sorted int arrays, so the snapshot boxes nothing and can be
+// shared by any number of readers without locking. Changes produce a new snapshot through withTask /
+// withoutTask / withResource; the receiver is never modified.
+public final class SprintBoardSnapshot {
+
+	// completedAt value of a task that is still open
+	public static final long OPEN = Long.MIN_VALUE;
+
+	// assignee value of a task nobody is assigned to
+	public static final int UNASSIGNED = 0;
+
+	private static final int[] NO_TASKS = new int[0];
+
+	private final int sprintId;
+	private final int moduleId;
+	private final long loadedAt;
+
+	// Parallel arrays sorted by task id
+	private final int[] taskIds;
+	private final long[] completedAt;
+	private final int[] assignees;
+
+	// Sorted user ids of the sprint's resources
+	private final int[] members;
+
+	// resourceTasks[i] holds the sorted task ids assigned to resourceIds[i]. The resources are the
+	// members plus anyone holding a task of the sprint without being a member.
+	private final int[] resourceIds;
+	private final int[][] resourceTasks;
+
+	private final int openTasks;
+
+	private SprintBoardSnapshot(int sprintId, int moduleId, int[] taskIds, long[] completedAt, int[] assignees,
+	        int[] members) {
+	    this.sprintId = sprintId;
+	    this.moduleId = moduleId;
+	    this.loadedAt = System.currentTimeMillis();
+	    this.taskIds = taskIds;
+	    this.completedAt = completedAt;
+	    this.assignees = assignees;
+	    this.members = members;
+
+	    int open = 0;
+	    for (long completed : completedAt) {
+	        if (completed == OPEN) {
+	            open++;
+	        }
+	    }
+	    this.openTasks = open;
+
+	    // Group task ids by assignee: sort (assignee, task) pairs packed into longs, then split the runs
+	    long[] pairs = new long[taskIds.length];
+	    int assigned = 0;
+	    for (int i = 0; i < taskIds.length; i++) {
+	        if (assignees[i] != UNASSIGNED) {
+	            pairs[assigned++] = ((long) assignees[i] << 32) | (taskIds[i] & 0xFFFFFFFFL);
+	        }
+	    }
+	    Arrays.sort(pairs, 0, assigned);
+
+	    // Merge the assignee runs with the members, both sorted by user id; members without tasks get
+	    // an empty list
+	    int[] ids = new int[assigned + members.length];
+	    int[][] tasksOf = new int[ids.length][];
+	    int resources = 0;
+	    int start = 0;
+	    int member = 0;
+	    while (start < assigned || member < members.length) {
+	        int assignee = start < assigned ? (int) (pairs[start] >> 32) : Integer.MAX_VALUE;
+	        if (start >= assigned || member < members.length && members[member] < assignee) {
+	            ids[resources] = members[member++];
+	            tasksOf[resources++] = NO_TASKS;
+	            continue;
+	        }
+	        if (member < members.length && members[member] == assignee) {
+	            member++;
+	        }
+	        int end = start;
+	        while (end < assigned && (int) (pairs[end] >> 32) == assignee) {
+	            end++;
+	        }
+	        int[] tasks = new int[end - start];
+	        for (int i = start; i < end; i++) {
+	            tasks[i - start] = (int) pairs[i];
+	        }
+	        ids[resources] = assignee;
+	        tasksOf[resources++] = tasks;
+	        start = end;
+	    }
+	    this.resourceIds = Arrays.copyOf(ids, resources);
+	    this.resourceTasks = Arrays.copyOf(tasksOf, resources);
+	}
+
+	// The task arrays are parallel and must be sorted by task id, members sorted by user id; they are
+	// taken over, not copied
+	public static SprintBoardSnapshot of(int sprintId, int moduleId, int[] taskIds, long[] completedAt, int[] assignees,
+	        int[] members) {
+	    if (taskIds.length != completedAt.length || taskIds.length != assignees.length) {
+	        throw new IllegalArgumentException("Board arrays must have the same length.");
+	    }
+	    requireSortedUnique(taskIds, "Board task ids");
+	    requireSortedUnique(members, "Board members");
+	    return new SprintBoardSnapshot(sprintId, moduleId, taskIds, completedAt, assignees, members);
+	}
+
+	// Copy of this board with the task added or replaced
+	public SprintBoardSnapshot withTask(int taskId, long taskCompletedAt, int assignee) {
+	    int index = Arrays.binarySearch(taskIds, taskId);
+	    if (index >= 0) {
+	        if (completedAt[index] == taskCompletedAt && assignees[index] == assignee) {
+	            return this;
+	        }
+	        long[] newCompletedAt = completedAt.clone();
+	        int[] newAssignees = assignees.clone();
+	        newCompletedAt[index] = taskCompletedAt;
+	        newAssignees[index] = assignee;
+	        return new SprintBoardSnapshot(sprintId, moduleId, taskIds, newCompletedAt, newAssignees, members);
+	    }
+	    int insertAt = -index - 1;
+	    int length = taskIds.length;
+	    int[] newTaskIds = new int[length + 1];
+	    long[] newCompletedAt = new long[length + 1];
+	    int[] newAssignees = new int[length + 1];
+	    System.arraycopy(taskIds, 0, newTaskIds, 0, insertAt);
+	    System.arraycopy(completedAt, 0, newCompletedAt, 0, insertAt);
+	    System.arraycopy(assignees, 0, newAssignees, 0, insertAt);
+	    newTaskIds[insertAt] = taskId;
+	    newCompletedAt[insertAt] = taskCompletedAt;
+	    newAssignees[insertAt] = assignee;
+	    System.arraycopy(taskIds, insertAt, newTaskIds, insertAt + 1, length - insertAt);
+	    System.arraycopy(completedAt, insertAt, newCompletedAt, insertAt + 1, length - insertAt);
+	    System.arraycopy(assignees, insertAt, newAssignees, insertAt + 1, length - insertAt);
+	    return new SprintBoardSnapshot(sprintId, moduleId, newTaskIds, newCompletedAt, newAssignees, members);
+	}
+
+	// Copy of this board without the task, or this board if the task is not on it
+	public SprintBoardSnapshot withoutTask(int taskId) {
+	    int index = Arrays.binarySearch(taskIds, taskId);
+	    if (index < 0) {
+	        return this;
+	    }
+	    int length = taskIds.length;
+	    int[] newTaskIds = new int[length - 1];
+	    long[] newCompletedAt = new long[length - 1];
+	    int[] newAssignees = new int[length - 1];
+	    System.arraycopy(taskIds, 0, newTaskIds, 0, index);
+	    System.arraycopy(completedAt, 0, newCompletedAt, 0, index);
+	    System.arraycopy(assignees, 0, newAssignees, 0, index);
+	    System.arraycopy(taskIds, index + 1, newTaskIds, index, length - index - 1);
+	    System.arraycopy(completedAt, index + 1, newCompletedAt, index, length - index - 1);
+	    System.arraycopy(assignees, index + 1, newAssignees, index, length - index - 1);
+	    return new SprintBoardSnapshot(sprintId, moduleId, newTaskIds, newCompletedAt, newAssignees, members);
+	}
+
+	// Copy of this board with the user added to the sprint's resources
+	public SprintBoardSnapshot withResource(int userId) {
+	    int index = Arrays.binarySearch(members, userId);
+	    if (index >= 0) {
+	        return this;
+	    }
+	    int insertAt = -index - 1;
+	    int[] newMembers = new int[members.length + 1];
+	    System.arraycopy(members, 0, newMembers, 0, insertAt);
+	    newMembers[insertAt] = userId;
+	    System.arraycopy(members, insertAt, newMembers, insertAt + 1, members.length - insertAt);
+	    return new SprintBoardSnapshot(sprintId, moduleId, taskIds, completedAt, assignees, newMembers);
+	}
+
+	public int getSprintId() {
+	    return sprintId;
+	}
+
+	public int getModuleId() {
+	    return moduleId;
+	}
+
+	// Wall-clock time at which this snapshot was built
+	public long getLoadedAt() {
+	    return loadedAt;
+	}
+
+	public int getTaskCount() {
+	    return taskIds.length;
+	}
+
+	public int getOpenTaskCount() {
+	    return openTasks;
+	}
+
+	public boolean containsTask(int taskId) {
+	    return Arrays.binarySearch(taskIds, taskId) >= 0;
+	}
+
+	public boolean isCompleted(int taskId) {
+	    int index = Arrays.binarySearch(taskIds, taskId);
+	    return index >= 0 && completedAt[index] != OPEN;
+	}
+
+	// Completion time in epoch millis, or OPEN if the task is open or not on the board
+	public long getCompletedAt(int taskId) {
+	    int index = Arrays.binarySearch(taskIds, taskId);
+	    return index >= 0 ? completedAt[index] : OPEN;
+	}
+
+	// Assigned user id, or UNASSIGNED if nobody holds the task or it is not on the board
+	public int getAssignee(int taskId) {
+	    int index = Arrays.binarySearch(taskIds, taskId);
+	    return index >= 0 ? assignees[index] : UNASSIGNED;
+	}
+
+	public int[] getTaskIds() {
+	    return taskIds.clone();
+	}
+
+	public int[] getResourceIds() {
+	    return resourceIds.clone();
+	}
+
+	// True if the user is one of the sprint's resources, whether or not they hold a task
+	public boolean isMember(int userId) {
+	    return Arrays.binarySearch(members, userId) >= 0;
+	}
+
+	// Sorted ids of the tasks assigned to the resource
+	public int[] getTasksOf(int resourceId) {
+	    int index = Arrays.binarySearch(resourceIds, resourceId);
+	    return index >= 0 ? resourceTasks[index].clone() : NO_TASKS;
+	}
+
+	public int getTaskCountOf(int resourceId) {
+	    int index = Arrays.binarySearch(resourceIds, resourceId);
+	    return index >= 0 ? resourceTasks[index].length : 0;
+	}
+
+	private static void requireSortedUnique(int[] ids, String what) {
+	    for (int i = 1; i < ids.length; i++) {
+	        if (ids[i] <= ids[i - 1]) {
+	            throw new IllegalArgumentException(what + " must be sorted and unique.");
+	        }
+	    }
+	}
+}
@@ -0,0 +1,36 @@
+package com.pennant.prodmtr.model.Dto;
+
+import java.time.LocalDate;
+
+// Burndown of one sprint: remaining open tasks at the end of each day from the first to the last day
+// on which a task of the sprint was completed. Arrays are parallel: remaining[i] belongs to days[i].
+public class SprintBurndownDTO {
+
+	private final int sprintId;
+	private final int totalTasks;
+	private final LocalDate[] days;
+	private final int[] remaining;
+
+	public SprintBurndownDTO(int sprintId, int totalTasks, LocalDate[] days, int[] remaining) {
+	    this.sprintId = sprintId;
+	    this.totalTasks = totalTasks;
+	    this.days = days;
+	    this.remaining = remaining;
+	}
+
+	public int getSprintId() {
+	    return sprintId;
+	}
+
+	public int getTotalTasks() {
+	    return totalTasks;
+	}
+
+	public LocalDate[] getDays() {
+	    return days.clone();
+	}
+
+	public int[] getRemaining() {
+	    return remaining.clone();
+	}
+}
@@ -0,0 +1,134 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import com.pennant.prodmtr.model.Entity.Sprint;
+
+// Allocation per call of the list-returning SprintDao methods, in the production logging mode: the
+// DAO logger at INFO, so only the summary lines are enabled and every DEBUG/TRACE statement is skipped
+// behind its level guard. The setup fails if DEBUG is enabled for SprintDaoImpl, since per-row TRACE
+// detail would then be measured too. Run main() (or -prof gc) to get gc.alloc.rate.norm per method.
+//
+// Each method runs at two result sizes. What the provider allocates per row is the same from commit
+// to commit; logging that builds a message per row shows up as a higher gc.alloc.rate.norm than the
+// previous commit at the larger size. Uses the same Environment as SprintDaoBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class SprintDaoAllocationBenchmark {
+
+	@Param({ "100", "1000" })
+	public int sprints;
+
+	@Param({ "20", "200" })
+	public int tasksPerSprint;
+
+	@Param({ "200", "2000" })
+	public int resources;
+
+	private EntityManagerFactory entityManagerFactory;
+	private EntityManager entityManager;
+	private SprintDaoImpl sprintDao;
+	private SprintDaoBenchmark.Fixture fixture;
+	private Sprint sprint;
+
+	public static void main(String[] args) throws RunnerException {
+	    new Runner(new OptionsBuilder()
+	            .include(SprintDaoAllocationBenchmark.class.getSimpleName())
+	            .addProfiler(GCProfiler.class)
+	            .build()).run();
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+	    if (LoggerFactory.getLogger(SprintDaoImpl.class).isDebugEnabled()) {
+	        throw new IllegalStateException("Set the SprintDaoImpl logger to INFO or above for the allocation run.");
+	    }
+	    SprintDaoBenchmark.Environment environment = SprintDaoBenchmark.environment();
+	    entityManagerFactory = environment.entityManagerFactory();
+	    entityManager = entityManagerFactory.createEntityManager();
+	    fixture = environment.seed(entityManager, sprints, tasksPerSprint, resources);
+	    entityManager.clear();
+	    sprintDao = SprintDaoBenchmark.newSprintDao(entityManager);
+	    sprint = entityManager.find(Sprint.class, fixture.sprintId());
+	}
+
+	// Same reset as SprintDaoBenchmark, so every row is loaded and mapped again
+	@Setup(Level.Invocation)
+	public void reset() {
+	    entityManager.clear();
+	    sprintDao.invalidateCaches();
+	    sprint = entityManager.find(Sprint.class, fixture.sprintId());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+	    entityManager.close();
+	    entityManagerFactory.close();
+	}
+
+	@Benchmark
+	public Object getBaskLogs() {
+	    return sprintDao.getBaskLogs();
+	}
+
+	@Benchmark
+	public Object getAllSprints() {
+	    return sprintDao.getAllSprints();
+	}
+
+	@Benchmark
+	public Object getSprintByProjId() {
+	    return sprintDao.getSprintByProjId(fixture.projectId());
+	}
+
+	@Benchmark
+	public Object getTasks() {
+	    return sprintDao.getTasks(fixture.moduleId());
+	}
+
+	@Benchmark
+	public Object getAllTasksBySprintId() {
+	    return sprintDao.getAllTasksBySprintId(sprint);
+	}
+
+	@Benchmark
+	public Object getSprintModulesByProjectId() {
+	    return sprintDao.getSprintModulesByProjectId(fixture.projectId());
+	}
+
+	@Benchmark
+	public Object getFunctionalUnitsByModId() {
+	    return sprintDao.getFunctionalUnitsByModId(fixture.moduleId(), fixture.projectId());
+	}
+
+	@Benchmark
+	public Object getAllResources() {
+	    return sprintDao.getAllResources();
+	}
+}
@@ -0,0 +1,301 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pennant.prodmtr.model.Dto.SprintPlan;
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.SprintResource;
+import com.pennant.prodmtr.model.Entity.SprintTasks;
+import com.pennant.prodmtr.model.Entity.Task;
+
+// JMH benchmarks for every SprintDao method and the DAO's backlog, bulk store, set-based update and
+// provisioning methods, run against a plain (non-Spring) SprintDaoImpl on an embedded database. Reads
+// run outside a transaction; every write runs in its own transaction that is rolled back, so the
+// seeded data stays the same for the whole run.
+//
+// Every invocation starts from an empty persistence context and empty DAO caches, so each read goes
+// to the database instead of returning entities or DTO lists loaded by the previous invocation. The
+// reset runs in a Level.Invocation setup, outside the measured time; JMH's timestamps around it add a
+// fixed overhead that only matters for operations well below a millisecond.
+//
+// The JPA mapping and the seed data come from an Environment named by the system property
+// sprintdao.bench.environment: it boots the persistence unit on H2 or HSQLDB and seeds the requested
+// volumes. Throughput and the latency distribution (SampleTime: p50/p90/p99/p999) are reported per
+// method; the allocation rate comes from the gc profiler:
+//
+//   java -Dsprintdao.bench.environment=com.example.H2SprintEnvironment -jar benchmarks.jar SprintDaoBenchmark \
+//        -prof gc -rf json -rff sprintdao-bench.json
+//
+// Compare the JSON of two commits to see what a change did to latency and gc.alloc.rate.norm.
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class SprintDaoBenchmark {
+
+	public static final String ENVIRONMENT_PROPERTY = "sprintdao.bench.environment";
+
+	// Boots the mapping and seeds the data; needs a public no-argument constructor
+	public interface Environment {
+	    EntityManagerFactory entityManagerFactory();
+
+	    // The same persistence unit on the given data source, creating the schema on the connection it
+	    // takes outside a transaction; used by ReadReplicaRoutingTest
+	    default EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+	        throw new UnsupportedOperationException(getClass().getName() + " only boots its own database.");
+	    }
+
+	    // Seeds the volumes in its own transaction and returns the rows the benchmarks work on
+	    Fixture seed(EntityManager entityManager, int sprints, int tasksPerSprint, int resources);
+	}
+
+	// Ids and fresh entities for the benchmarks, taken from the seeded data
+	public interface Fixture {
+	    int sprintId();
+
+	    int projectId();
+
+	    int moduleId();
+
+	    int functionalUnitId();
+
+	    // A new, unsaved sprint in the seeded project
+	    Sprint newSprint();
+
+	    // A seeded task loaded through entityManager, with a change applied
+	    Task changedTask(EntityManager entityManager);
+
+	    // New, unsaved link rows between seeded sprints, tasks and users
+	    SprintResource newSprintResource(EntityManager entityManager);
+
+	    SprintTasks newSprintTasks(EntityManager entityManager);
+
+	    // New, unsaved rows for the bulk stores (tasks with id 0, link rows between seeded entities)
+	    List<Task> newTasks(EntityManager entityManager, int count);
+
+	    List<SprintTasks> newSprintTasks(EntityManager entityManager, int count);
+
+	    List<SprintResource> newSprintResources(EntityManager entityManager, int count);
+
+	    // Seeded functional unit ids, for the set-based status update
+	    List<Integer> functionalUnitIds(int count);
+
+	    // A plan for a new sprint in the seeded project with the given number of tasks, functional
+	    // units and resources
+	    SprintPlan newSprintPlan(EntityManager entityManager, int size);
+	}
+
+	// Rows per call of the bulk and set-based writes
+	private static final int BATCH_ROWS = 100;
+
+	// Up to 100k sprints to show how the sprint scans scale; the large sizes take a while to seed, so
+	// pick the methods of interest, e.g. -p sprints=100000 SprintDaoBenchmark.getSprintModulesByProjectId
+	@Param({ "100", "1000", "10000", "100000" })
+	public int sprints;
+
+	@Param({ "20" })
+	public int tasksPerSprint;
+
+	@Param({ "200" })
+	public int resources;
+
+	private EntityManagerFactory entityManagerFactory;
+	private EntityManager entityManager;
+	private SprintDaoImpl sprintDao;
+	private Fixture fixture;
+	private Sprint sprint;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+	    Environment environment = environment();
+	    entityManagerFactory = environment.entityManagerFactory();
+	    entityManager = entityManagerFactory.createEntityManager();
+	    fixture = environment.seed(entityManager, sprints, tasksPerSprint, resources);
+	    entityManager.clear();
+	    sprintDao = newSprintDao(entityManager);
+	    sprint = entityManager.find(Sprint.class, fixture.sprintId());
+	}
+
+	static Environment environment() throws ReflectiveOperationException {
+	    String environmentClass = System.getProperty(ENVIRONMENT_PROPERTY);
+	    if (environmentClass == null) {
+	        throw new IllegalStateException("Set -D" + ENVIRONMENT_PROPERTY + " to an Environment implementation.");
+	    }
+	    return (Environment) Class.forName(environmentClass).getDeclaredConstructor().newInstance();
+	}
+
+	// What Spring does for the bean: inject the EntityManager, then register the named queries
+	static SprintDaoImpl newSprintDao(EntityManager entityManager) throws ReflectiveOperationException {
+	    SprintDaoImpl sprintDao = new SprintDaoImpl();
+	    Field entityManagerField = SprintDaoImpl.class.getDeclaredField("entityManager");
+	    entityManagerField.setAccessible(true);
+	    entityManagerField.set(sprintDao, entityManager);
+	    sprintDao.afterPropertiesSet();
+	    return sprintDao;
+	}
+
+	// Drops what the previous invocation loaded, then reloads the sprint argument of getAllTasksBySprintId
+	@Setup(Level.Invocation)
+	public void reset() {
+	    entityManager.clear();
+	    sprintDao.invalidateCaches();
+	    sprint = entityManager.find(Sprint.class, fixture.sprintId());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+	    entityManager.close();
+	    entityManagerFactory.close();
+	}
+
+	@Benchmark
+	public Object getBaskLogs() {
+	    return sprintDao.getBaskLogs();
+	}
+
+	@Benchmark
+	public Object getSprintDetails() {
+	    return sprintDao.getSprintDetails(fixture.sprintId());
+	}
+
+	@Benchmark
+	public Object getTasks() {
+	    return sprintDao.getTasks(fixture.moduleId());
+	}
+
+	@Benchmark
+	public Object getAllSprints() {
+	    return sprintDao.getAllSprints();
+	}
+
+	@Benchmark
+	public Object getAllTasksBySprintId() {
+	    return sprintDao.getAllTasksBySprintId(sprint);
+	}
+
+	@Benchmark
+	public Object getBacklogWithOpenTaskCounts() {
+	    return sprintDao.getBacklogWithOpenTaskCounts();
+	}
+
+	// The module and resource caches are emptied before every invocation, so these measure the query.
+	// getSprintModulesByProjectId is the unassigned-module anti-join over the sprints of one project.
+	@Benchmark
+	public Object getSprintModulesByProjectId() {
+	    return sprintDao.getSprintModulesByProjectId(fixture.projectId());
+	}
+
+	@Benchmark
+	public Object getSprintModulesByProjectIdPage() {
+	    return sprintDao.getSprintModulesByProjectId(fixture.projectId(), 0, 50);
+	}
+
+	@Benchmark
+	public Object getFunctionalUnitsByModId() {
+	    return sprintDao.getFunctionalUnitsByModId(fixture.moduleId(), fixture.projectId());
+	}
+
+	@Benchmark
+	public Object getAllResources() {
+	    return sprintDao.getAllResources();
+	}
+
+	@Benchmark
+	public Object getSprintByProjId() {
+	    return sprintDao.getSprintByProjId(fixture.projectId());
+	}
+
+	@Benchmark
+	public Object storeSprint() {
+	    return inRolledBackTransaction(em -> sprintDao.storeSprint(fixture.newSprint()));
+	}
+
+	@Benchmark
+	public Object storeTask() {
+	    return inRolledBackTransaction(em -> sprintDao.storeTask(fixture.changedTask(em)));
+	}
+
+	@Benchmark
+	public void storeSprintResource() {
+	    runInRolledBackTransaction(em -> sprintDao.storeSprintResource(fixture.newSprintResource(em)));
+	}
+
+	@Benchmark
+	public void storeSprintTasks() {
+	    runInRolledBackTransaction(em -> sprintDao.storeSprintTasks(fixture.newSprintTasks(em)));
+	}
+
+	@Benchmark
+	public void updateFunctionalstatus() {
+	    runInRolledBackTransaction(em -> sprintDao.updateFunctionalstatus(fixture.functionalUnitId()));
+	}
+
+	@Benchmark
+	public Object updateFunctionalStatus() {
+	    return inRolledBackTransaction(em -> sprintDao.updateFunctionalStatus(fixture.functionalUnitIds(BATCH_ROWS),
+	            SprintPlan.DEFAULT_FUNCTIONAL_UNIT_STATUS));
+	}
+
+	@Benchmark
+	public Object storeTasks() {
+	    return inRolledBackTransaction(em -> sprintDao.storeTasks(fixture.newTasks(em, BATCH_ROWS)));
+	}
+
+	@Benchmark
+	public Object storeSprintTasksBatch() {
+	    return inRolledBackTransaction(em -> sprintDao.storeSprintTasks(fixture.newSprintTasks(em, BATCH_ROWS)));
+	}
+
+	@Benchmark
+	public Object storeSprintResources() {
+	    return inRolledBackTransaction(em -> sprintDao.storeSprintResources(fixture.newSprintResources(em, BATCH_ROWS)));
+	}
+
+	@Benchmark
+	public Object provisionSprint() {
+	    return inRolledBackTransaction(em -> sprintDao.provisionSprint(fixture.newSprintPlan(em, BATCH_ROWS)));
+	}
+
+	// Flushes so the statements actually run, then rolls back to keep the seeded data unchanged
+	private <T> T inRolledBackTransaction(Function<EntityManager, T> write) {
+	    entityManager.getTransaction().begin();
+	    try {
+	        T result = write.apply(entityManager);
+	        entityManager.flush();
+	        return result;
+	    } finally {
+	        entityManager.getTransaction().rollback();
+	    }
+	}
+
+	private void runInRolledBackTransaction(Consumer<EntityManager> write) {
+	    inRolledBackTransaction(em -> {
+	        write.accept(em);
+	        return null;
+	    });
+	}
+}
@@ -0,0 +1,11 @@
+package com.pennant.prodmtr.Dao.Interface;
+
+// The change collided with a concurrent change, an existing row or a database constraint.
+public class SprintDaoConflictException extends SprintDaoException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SprintDaoConflictException(String operation, String message, Throwable cause) {
+	    super(operation, message, cause);
+	}
+}
@@ -0,0 +1,31 @@
+package com.pennant.prodmtr.Dao.Interface;
+
+import org.springframework.dao.DataAccessException;
+
+// Base of the exceptions thrown by SprintDao. The DAO translates every persistence failure into one of
+// these exactly once, always keeping the original exception as the cause. The stack trace is not
+// captured again: the cause already carries it, and re-capturing it on every failing call is what
+// makes the error path expensive during a database brownout.
+//
+// Extends Spring's DataAccessException so @Repository exception translation passes it through as is.
+public class SprintDaoException extends DataAccessException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String operation;
+
+	public SprintDaoException(String operation, String message, Throwable cause) {
+	    super(message, cause);
+	    this.operation = operation;
+	}
+
+	// The DAO method that failed
+	public String getOperation() {
+	    return operation;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+	    return this;
+	}
+}
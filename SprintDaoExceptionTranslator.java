@@ -0,0 +1,160 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityExistsException;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockTimeoutException;
+import javax.persistence.NoResultException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
+import javax.persistence.QueryTimeoutException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.pennant.prodmtr.Dao.Interface.SprintDaoConflictException;
+import com.pennant.prodmtr.Dao.Interface.SprintDaoException;
+import com.pennant.prodmtr.Dao.Interface.SprintDaoNotFoundException;
+import com.pennant.prodmtr.Dao.Interface.SprintDaoTimeoutException;
+
+// Single place where SprintDaoImpl turns a failure into a SprintDaoException. The exception is
+// classified by walking its cause chain, wrapped once with the original as cause, and logged once.
+// Logging is rate-limited per (method, exception type): the first failure in each window is logged
+// with its stack trace, the rest are only counted and reported with the next logged one.
+// IllegalArgumentException is a caller error, not a persistence failure, and is rethrown unchanged.
+class SprintDaoExceptionTranslator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SprintDaoExceptionTranslator.class);
+
+	private final long logIntervalNanos;
+	private final ConcurrentMap<String, LogWindow> windows = new ConcurrentHashMap<>();
+
+	SprintDaoExceptionTranslator(long logIntervalMillis) {
+	    if (logIntervalMillis < 0) {
+	        throw new IllegalArgumentException("Log interval must not be negative.");
+	    }
+	    this.logIntervalNanos = logIntervalMillis * 1_000_000L;
+	}
+
+	RuntimeException translate(String method, RuntimeException error, Object... params) {
+	    if (error instanceof SprintDaoException) {
+	        // Already translated by a nested DAO call, and already logged there
+	        return error;
+	    }
+	    if (error instanceof IllegalArgumentException) {
+	        log(method, error, params);
+	        return error;
+	    }
+	    String message = method + " failed: " + error.getMessage();
+	    SprintDaoException translated;
+	    switch (classify(error)) {
+	        case NOT_FOUND:
+	            translated = new SprintDaoNotFoundException(method, message, error);
+	            break;
+	        case CONFLICT:
+	            translated = new SprintDaoConflictException(method, message, error);
+	            break;
+	        case TIMEOUT:
+	            translated = new SprintDaoTimeoutException(method, message, error);
+	            break;
+	        default:
+	            translated = new SprintDaoException(method, message, error);
+	    }
+	    log(method, error, params);
+	    return translated;
+	}
+
+	// Lock-wait timeouts come first: Hibernate reports them as PessimisticLockException (PostgreSQL
+	// 55P03) or LockAcquisitionException (MySQL 1205), which would otherwise be counted as conflicts
+	private static Kind classify(Throwable error) {
+	    if (isLockWaitTimeout(error)) {
+	        return Kind.TIMEOUT;
+	    }
+	    for (Throwable t = error; t != null; t = t.getCause()) {
+	        if (t instanceof EntityNotFoundException || t instanceof NoResultException) {
+	            return Kind.NOT_FOUND;
+	        }
+	        if (t instanceof OptimisticLockException || t instanceof OptimisticLockingFailureException
+	                || t instanceof PessimisticLockException || t instanceof EntityExistsException
+	                || t instanceof ConstraintViolationException || t instanceof DataIntegrityViolationException) {
+	            return Kind.CONFLICT;
+	        }
+	        if (t.getCause() == t) {
+	            break;
+	        }
+	    }
+	    return Kind.OTHER;
+	}
+
+	// Statement and lock-wait timeouts anywhere in the cause chain: the JPA timeout types, plus the
+	// lock-wait codes of PostgreSQL (SQLState 55P03), MySQL/MariaDB (1205) and H2 (50200). Also used by
+	// SprintDaoLoadGenerator, so both agree on what a lock wait is.
+	static boolean isLockWaitTimeout(Throwable error) {
+	    for (Throwable t = error; t != null; t = t.getCause()) {
+	        if (t instanceof QueryTimeoutException || t instanceof LockTimeoutException) {
+	            return true;
+	        }
+	        if (t instanceof SQLException) {
+	            SQLException sqlError = (SQLException) t;
+	            int code = sqlError.getErrorCode();
+	            if ("55P03".equals(sqlError.getSQLState()) || code == 1205 || code == 50200) {
+	                return true;
+	            }
+	        }
+	        if (t.getCause() == t) {
+	            break;
+	        }
+	    }
+	    return false;
+	}
+
+	private void log(String method, RuntimeException error, Object[] params) {
+	    if (!logger.isErrorEnabled()) {
+	        return;
+	    }
+	    String key = method + '/' + error.getClass().getName();
+	    LogWindow window = windows.get(key);
+	    if (window == null) {
+	        window = windows.computeIfAbsent(key, k -> new LogWindow());
+	    }
+	    long suppressed = window.tryOpen(System.nanoTime(), logIntervalNanos);
+	    if (suppressed < 0) {
+	        return;
+	    }
+	    if (suppressed == 0) {
+	        logger.error("{} failed with parameters {}", method, Arrays.toString(params), error);
+	    } else {
+	        logger.error("{} failed with parameters {} ({} similar failures suppressed)", method,
+	                Arrays.toString(params), suppressed, error);
+	    }
+	}
+
+	private enum Kind {
+	    NOT_FOUND, CONFLICT, TIMEOUT, OTHER
+	}
+
+	// One log line per interval; failures in between are only counted
+	private static final class LogWindow {
+	    private final AtomicLong nextLogAt = new AtomicLong(Long.MIN_VALUE);
+	    private final AtomicLong suppressed = new AtomicLong();
+
+	    // Returns the number of failures suppressed since the last log line if this one may be logged,
+	    // or -1 if it falls into the current window
+	    long tryOpen(long now, long intervalNanos) {
+	        long next = nextLogAt.get();
+	        if ((next == Long.MIN_VALUE || now - next >= 0) && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+	            return suppressed.getAndSet(0);
+	        }
+	        suppressed.incrementAndGet();
+	        return -1;
+	    }
+	}
+}
@@ -0,0 +1,145 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.pennant.prodmtr.Dao.Interface.TaskFetchProfile;
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.SprintTasks;
+import com.pennant.prodmtr.model.Entity.Task;
+
+// Each TaskFetchProfile must load a page of tasks and everything the page renders in one statement.
+// Runs on the embedded database of the benchmark Environment named by -Dsprintdao.bench.environment
+// and is skipped without one. Hibernate statistics count the JDBC statements; the associations are
+// checked with PersistenceUnitUtil.isLoaded, which does not trigger a lazy load itself.
+public class SprintDaoFetchProfileTest {
+
+	private static final int SPRINTS = 3;
+	private static final int TASKS_PER_SPRINT = 10;
+	private static final int RESOURCES = 5;
+
+	private static EntityManagerFactory entityManagerFactory;
+	private static EntityManager entityManager;
+	private static SprintDaoImpl sprintDao;
+	private static SprintDaoBenchmark.Fixture fixture;
+	private static Statistics statistics;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+	    String environmentClass = System.getProperty(SprintDaoBenchmark.ENVIRONMENT_PROPERTY);
+	    assumeTrue("No embedded database environment configured", environmentClass != null);
+	    SprintDaoBenchmark.Environment environment = (SprintDaoBenchmark.Environment) Class.forName(environmentClass)
+	            .getDeclaredConstructor().newInstance();
+	    entityManagerFactory = environment.entityManagerFactory();
+	    entityManager = entityManagerFactory.createEntityManager();
+	    fixture = environment.seed(entityManager, SPRINTS, TASKS_PER_SPRINT, RESOURCES);
+
+	    sprintDao = new SprintDaoImpl();
+	    Field entityManagerField = SprintDaoImpl.class.getDeclaredField("entityManager");
+	    entityManagerField.setAccessible(true);
+	    entityManagerField.set(sprintDao, entityManager);
+	    sprintDao.afterPropertiesSet();
+
+	    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	    statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+	    if (entityManager != null) {
+	        entityManager.close();
+	    }
+	    if (entityManagerFactory != null) {
+	        entityManagerFactory.close();
+	    }
+	}
+
+	// Every test starts from an empty persistence context, so nothing is served from the first-level cache
+	@Before
+	public void clear() {
+	    entityManager.clear();
+	}
+
+	@Test
+	public void summaryTasksByModuleRunOneStatement() {
+	    List<Task> tasks = countedTasks(TaskFetchProfile.SUMMARY);
+	    assertFetched(tasks, TaskFetchProfile.SUMMARY);
+	}
+
+	@Test
+	public void boardTasksByModuleRunOneStatement() {
+	    List<Task> tasks = countedTasks(TaskFetchProfile.BOARD);
+	    assertFetched(tasks, TaskFetchProfile.BOARD);
+	}
+
+	@Test
+	public void summarySprintTasksRunOneStatement() {
+	    List<SprintTasks> sprintTasks = countedSprintTasks(TaskFetchProfile.SUMMARY);
+	    assertSprintTasksFetched(sprintTasks, TaskFetchProfile.SUMMARY);
+	}
+
+	@Test
+	public void boardSprintTasksRunOneStatement() {
+	    List<SprintTasks> sprintTasks = countedSprintTasks(TaskFetchProfile.BOARD);
+	    assertSprintTasksFetched(sprintTasks, TaskFetchProfile.BOARD);
+	}
+
+	private List<Task> countedTasks(TaskFetchProfile profile) {
+	    statistics.clear();
+	    List<Task> tasks = sprintDao.getTasks(fixture.moduleId(), profile);
+	    assertEquals("Statements for getTasks with " + profile, 1, statistics.getPrepareStatementCount());
+	    assertFalse("Seeded module has no tasks", tasks.isEmpty());
+	    return tasks;
+	}
+
+	// The sprint is looked up before the statistics are reset, as the caller already holds it
+	private List<SprintTasks> countedSprintTasks(TaskFetchProfile profile) {
+	    Sprint sprint = entityManager.find(Sprint.class, fixture.sprintId());
+	    statistics.clear();
+	    List<SprintTasks> sprintTasks = sprintDao.getAllTasksBySprintId(sprint, profile);
+	    assertEquals("Statements for getAllTasksBySprintId with " + profile, 1, statistics.getPrepareStatementCount());
+	    assertFalse("Seeded sprint has no tasks", sprintTasks.isEmpty());
+	    return sprintTasks;
+	}
+
+	private void assertSprintTasksFetched(List<SprintTasks> sprintTasks, TaskFetchProfile profile) {
+	    PersistenceUnitUtil util = entityManagerFactory.getPersistenceUnitUtil();
+	    for (SprintTasks sprintTask : sprintTasks) {
+	        assertTrue("Sprint not fetched", util.isLoaded(sprintTask.getId().getSprnId()));
+	        assertTrue("Task not fetched", util.isLoaded(sprintTask.getId().getTaskId()));
+	        assertFetched(sprintTask.getId().getTaskId(), profile, util);
+	    }
+	    assertEquals("Lazy loads while checking " + profile, 0, statistics.getPrepareStatementCount() - 1);
+	}
+
+	private void assertFetched(List<Task> tasks, TaskFetchProfile profile) {
+	    PersistenceUnitUtil util = entityManagerFactory.getPersistenceUnitUtil();
+	    for (Task task : tasks) {
+	        assertFetched(task, profile, util);
+	    }
+	    assertEquals("Lazy loads while checking " + profile, 0, statistics.getPrepareStatementCount() - 1);
+	}
+
+	private static void assertFetched(Task task, TaskFetchProfile profile, PersistenceUnitUtil util) {
+	    for (String attribute : profile.getTaskAttributes()) {
+	        assertTrue(attribute + " of task " + task.getTaskId() + " not fetched with " + profile,
+	                util.isLoaded(task, attribute));
+	    }
+	}
+}
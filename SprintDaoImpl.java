@@ -1,31 +1,63 @@
 package com.pennant.prodmtr.Dao.Impl;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
-import javax.persistence.EntityExistsException;
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
 import javax.persistence.EntityManager;
-import javax.persistence.EntityNotFoundException;
-import javax.persistence.LockTimeoutException;
-import javax.persistence.NoResultException;
-import javax.persistence.NonUniqueResultException;
 import javax.persistence.OptimisticLockException;
 import javax.persistence.PersistenceContext;
-import javax.persistence.PersistenceException;
-import javax.persistence.PessimisticLockException;
-import javax.persistence.QueryTimeoutException;
-import javax.persistence.TransactionRequiredException;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
 
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.pennant.prodmtr.Dao.Interface.SprintDao;
+import com.pennant.prodmtr.Dao.Interface.SprintDaoException;
+import com.pennant.prodmtr.Dao.Interface.TaskFetchProfile;
+import com.pennant.prodmtr.model.Dto.BacklogSprintDTO;
+import com.pennant.prodmtr.model.Dto.BatchInsertSummary;
+import com.pennant.prodmtr.model.Dto.ChangeFeed;
 import com.pennant.prodmtr.model.Dto.ModuleDTO;
+import com.pennant.prodmtr.model.Dto.ResourceLoadDTO;
+import com.pennant.prodmtr.model.Dto.SprintBoardSnapshot;
+import com.pennant.prodmtr.model.Dto.SprintBurndownDTO;
+import com.pennant.prodmtr.model.Dto.SprintPlan;
+import com.pennant.prodmtr.model.Dto.SprintProvisioningResult;
+import com.pennant.prodmtr.model.Dto.SprintVelocityDTO;
 import com.pennant.prodmtr.model.Dto.UserDto;
+import com.pennant.prodmtr.model.Entity.ChangeTracked;
 import com.pennant.prodmtr.model.Entity.FunctionalUnit;
 import com.pennant.prodmtr.model.Entity.Module;
 import com.pennant.prodmtr.model.Entity.Sprint;
@@ -33,504 +65,1478 @@ import com.pennant.prodmtr.model.Entity.SprintResource;
 import com.pennant.prodmtr.model.Entity.SprintTasks;
 import com.pennant.prodmtr.model.Entity.Task;
 import com.pennant.prodmtr.model.Entity.User;
-import com.pennant.prodmtr.service.Impl.SprintServiceImpl;
+import com.pennant.prodmtr.model.Entity.Versioned;
 
 @Repository
 @Transactional
-public class SprintDaoImpl implements SprintDao {
+public class SprintDaoImpl implements SprintDao, InitializingBean {
 
 	@PersistenceContext
 	private EntityManager entityManager;
 	
-	private static final Logger logger = LoggerFactory.getLogger(SprintServiceImpl.class);
+	private static final Logger logger = LoggerFactory.getLogger(SprintDaoImpl.class);
+
+	// Rows pulled per JDBC round trip by the streaming methods. MySQL Connector/J ignores it and reads
+	// the whole result into memory unless the URL or data source sets useCursorFetch=true (see
+	// SprintQueryRegistry.dataSourceProperties); PostgreSQL also needs the transaction these methods require.
+	private static final int STREAM_FETCH_SIZE = 500;
+
+	// Upper bound for a single keyset page
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	// Entities persisted per JDBC batch before the batch is flushed and its rows detached
+	private static final int INSERT_BATCH_SIZE = 50;
+
+	// Maximum number of ids bound into a single IN list
+	private static final int IN_LIST_CHUNK_SIZE = 500;
+
+	// Read cache sizing; entries are evicted least-recently-used first or once they are older than the TTL
+	private static final int PROJECT_CACHE_SIZE = 500;
+	private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000L;
+
+	private final LruTtlCache<Integer, List<ModuleDTO>> projectModulesCache = new LruTtlCache<>("sprintModulesByProject", PROJECT_CACHE_SIZE, CACHE_TTL_MILLIS);
+	private final LruTtlCache<String, List<UserDto>> resourcesCache = new LruTtlCache<>("resources", 1, CACHE_TTL_MILLIS);
+
+	private static final String ALL_RESOURCES_KEY = "all";
+
+	// Board snapshots of the sprints currently on screen, served from memory by getSprintBoard. Writes made
+	// outside this DAO only show up once a board is reloaded after MAX_BOARD_AGE_MILLIS.
+	private static final int MAX_SPRINT_BOARDS = 256;
+	private static final long MAX_BOARD_AGE_MILLIS = CACHE_TTL_MILLIS;
+	private final SprintBoardCache sprintBoards = new SprintBoardCache(MAX_SPRINT_BOARDS, MAX_BOARD_AGE_MILLIS);
+
+	// Latency, row count and error instrumentation for every public method of this DAO
+	private final SprintDaoMetrics metrics = new SprintDaoMetrics();
+
+	// Failures of the same method and type are logged at most once per interval
+	private static final long ERROR_LOG_INTERVAL_MILLIS = 10_000;
+	private final SprintDaoExceptionTranslator exceptionTranslator = new SprintDaoExceptionTranslator(ERROR_LOG_INTERVAL_MILLIS);
+
+	// Compile time of each named query, filled once at startup
+	private Map<String, Long> queryCompileMicros = Collections.emptyMap();
+
+	// How far before the watermark each change-feed poll reads again. Must cover the longest write
+	// transaction plus the clock skew between application nodes.
+	private static final long CHANGE_FEED_OVERLAP_MILLIS = 60_000;
+
+	private static final String VERSION_ATTRIBUTE = "version";
+	private static final String LAST_MODIFIED_ATTRIBUTE = "lastModified";
+
+	private static final String HINT_QUERY_TIMEOUT = "javax.persistence.query.timeout";
+	private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+	private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+	private static final String HINT_CACHEABLE = "org.hibernate.cacheable";
+	private static final String HINT_CACHE_REGION = "org.hibernate.cacheRegion";
+	private static final String HINT_CACHE_RETRIEVE_MODE = "javax.persistence.cache.retrieveMode";
+	private static final String HINT_CACHE_STORE_MODE = "javax.persistence.cache.storeMode";
+
+	private static final String SPRINTS_BY_PROJECT_REGION = "sprintsByProject";
+	private static final Map<String, Object> SECOND_LEVEL_CACHE_USE =
+	        Collections.singletonMap(HINT_CACHE_RETRIEVE_MODE, CacheRetrieveMode.USE);
+	private static final Map<String, Object> SECOND_LEVEL_CACHE_BYPASS =
+	        Collections.singletonMap(HINT_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+	private static final Map<String, Object> SECOND_LEVEL_CACHE_READ_ONLY =
+	        Collections.singletonMap(HINT_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
 
 
 	@Override
-	public List<Sprint> getBaskLogs() throws IllegalArgumentException, IllegalStateException, PersistenceException,
-	        TransactionRequiredException, QueryTimeoutException, NoResultException {
-	    try {
-	        // Create the JPQL query to retrieve the backlog sprints
-	        String query = "SELECT s FROM Sprint s WHERE EXISTS (SELECT 1 FROM Task t WHERE t.module.id = s.moduleId.id AND t.taskCompletedDateTime IS NULL)";
+	@Transactional(readOnly = true)
+	public List<Sprint> getBaskLogs() throws IllegalArgumentException, SprintDaoException {
+	    return call("getBaskLogs", SprintQuery.BACKLOG_SPRINTS.getJpql(), () -> {
 	        // Execute the query and retrieve the result list
-	        List<Sprint> backlogSprints = entityManager.createQuery(query, Sprint.class).getResultList();
+	        List<Sprint> backlogSprints = namedQuery(SprintQuery.BACKLOG_SPRINTS, Sprint.class).getResultList();
 	        // Log the successful retrieval of the backlog sprints
-	        logger.info("Successfully retrieved backlog sprints");
+	        logger.debug("Successfully retrieved backlog sprints");
 	        return backlogSprints;
-	    } catch (IllegalArgumentException e) {
-	        String errorMessage = "Invalid request. Please provide a valid query parameter.";
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error(errorMessage, e);
-	        throw new IllegalArgumentException(errorMessage, e);
-	    } catch (IllegalStateException e) {
-	        String errorMessage = "Internal error. Please try again later.";
-	        // Log the error and throw an IllegalStateException
-	        logger.error(errorMessage, e);
-	        throw new IllegalStateException(errorMessage, e);
-	    } catch (QueryTimeoutException e) {
-	        String errorMessage = "The execution of the query has exceeded the specified timeout.";
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error(errorMessage, e);
-	        throw new QueryTimeoutException(errorMessage, e);
-	    } catch (PersistenceException e) {
-	        String errorMessage = "An error occurred while retrieving data from the database.";
-	        // Log the error and throw a PersistenceException
-	        logger.error(errorMessage, e);
-	        throw new PersistenceException(errorMessage, e);
-	    }
+	    });
 	}
 
 
 	@Override
+	@Transactional(readOnly = true)
 	public Sprint getSprintDetails(int sprintId)
-	        throws IllegalArgumentException, EntityNotFoundException, TransactionRequiredException,
-	        QueryTimeoutException, PessimisticLockException, LockTimeoutException, PersistenceException {
-	    try {
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintDetails", "find Sprint", () -> {
 	        // Retrieve the sprint details using the provided sprintId
-	        Sprint sprint = entityManager.find(Sprint.class, sprintId);
+	        Sprint sprint = ReadReplicaRoutingDataSource.readFromPrimary(
+	                () -> entityManager.find(Sprint.class, sprintId, secondLevelCacheHints()));
 	        // Log the successful retrieval of the sprint details
-	        logger.info("Successfully retrieved sprint details for sprint ID: " + sprintId);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Successfully retrieved sprint details for sprint ID: {}", sprintId);
+	        }
 	        return sprint;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid sprint ID. Please provide a valid ID.", e);
-	        throw new IllegalArgumentException("Invalid sprint ID. Please provide a valid ID.", e);
-	    } catch (EntityNotFoundException e) {
-	        // Log the error and throw an EntityNotFoundException
-	        logger.error("Sprint not found for the given ID.", e);
-	        throw new EntityNotFoundException("Sprint not found for the given ID.");
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Transaction is required to fetch the sprint details.", e);
-	        throw new TransactionRequiredException("Transaction is required to fetch the sprint details.");
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("Fetching sprint details took longer than expected. Please try again later.", e);
-	        throw new QueryTimeoutException("Fetching sprint details took longer than expected. Please try again later.", e);
-	    } catch (PessimisticLockException e) {
-	        // Log the error and throw a PessimisticLockException
-	        logger.error("Unable to fetch sprint details due to a lock conflict.", e);
-	        throw new PessimisticLockException("Unable to fetch sprint details due to a lock conflict.", e);
-	    } catch (LockTimeoutException e) {
-	        // Log the error and throw a LockTimeoutException
-	        logger.error("Fetching sprint details exceeded the lock timeout. Please try again later.", e);
-	        throw new LockTimeoutException("Fetching sprint details exceeded the lock timeout. Please try again later.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while fetching the sprint details.", e);
-	        throw new PersistenceException("An error occurred while fetching the sprint details.", e);
-	    }
+	    }, sprintId);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Task> getTasks(int modlId)
-	        throws IllegalArgumentException, EntityNotFoundException, TransactionRequiredException,
-	        QueryTimeoutException, PersistenceException, NoResultException, NonUniqueResultException {
-	    try {
-	        // Construct the query to retrieve tasks based on the module ID
-	        String query = "SELECT t FROM Task t WHERE t.module.id = :modlId";
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getTasks", SprintQuery.TASKS_BY_MODULE.getJpql(), () -> {
 	        // Set the module ID parameter in the query
-	        List<Task> tasks = entityManager.createQuery(query, Task.class)
+	        List<Task> tasks = namedQuery(SprintQuery.TASKS_BY_MODULE, Task.class)
 	                .setParameter("modlId", modlId)
 	                .getResultList();
 	        // Log the successful retrieval of tasks
-	        logger.info("Successfully retrieved tasks for module ID: " + modlId);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} tasks for module ID: {}", tasks.size(), modlId);
+	        }
 	        return tasks;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid module ID. Please provide a valid ID.", e);
-	        throw new IllegalArgumentException("Invalid module ID. Please provide a valid ID.", e);
-	    } catch (EntityNotFoundException e) {
-	        // Log the error and throw an EntityNotFoundException
-	        logger.error("Module not found for the given ID.", e);
-	        throw new EntityNotFoundException("Module not found for the given ID.");
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Unable to fetch tasks. Please try again later.", e);
-	        throw new TransactionRequiredException("Unable to fetch tasks. Please try again later.");
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("Fetching tasks took longer than expected. Please try again later.", e);
-	        throw new QueryTimeoutException("Fetching tasks took longer than expected. Please try again later.", e);
-	    } catch (NoResultException e) {
-	        // Log the error and throw a NoResultException
-	        logger.error("No tasks found for the specified module ID.", e);
-	        throw new NoResultException("No tasks found for the specified module ID.");
-	    } catch (NonUniqueResultException e) {
-	        // Log the error and throw a NonUniqueResultException
-	        logger.error("Multiple tasks found for the specified module ID. Please contact support for assistance.", e);
-	        throw new NonUniqueResultException("Multiple tasks found for the specified module ID. Please contact support for assistance.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while fetching tasks. Please try again later.", e);
-	        throw new PersistenceException("An error occurred while fetching tasks. Please try again later.", e);
-	    }
+	    }, modlId);
 	}
 
 	@Override
-	public List<Sprint> getAllSprints() throws IllegalArgumentException, TransactionRequiredException,
-	        QueryTimeoutException, PersistenceException, NoResultException, NonUniqueResultException {
-	    try {
-	        // Construct the query to retrieve all sprints
-	        String query = "SELECT s FROM Sprint s";
+	@Transactional(readOnly = true)
+	public List<Sprint> getAllSprints() throws IllegalArgumentException, SprintDaoException {
+	    return call("getAllSprints", SprintQuery.ALL_SPRINTS.getJpql(), () -> {
 	        // Execute the query and get the list of sprints
-	        List<Sprint> sprints = entityManager.createQuery(query, Sprint.class).getResultList();
+	        List<Sprint> sprints = namedQuery(SprintQuery.ALL_SPRINTS, Sprint.class).getResultList();
 	        // Log the successful retrieval of sprints
-	        logger.info("Successfully retrieved all sprints.");
+	        logger.debug("Successfully retrieved all sprints.");
 	        return sprints;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid query. Please provide a valid query.", e);
-	        throw new IllegalArgumentException("Invalid query. Please provide a valid query.", e);
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Transaction is required to perform the query operation.", e);
-	        throw new TransactionRequiredException("Transaction is required to perform the query operation.");
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("The execution of the query has exceeded the specified timeout.", e);
-	        throw new QueryTimeoutException("The execution of the query has exceeded the specified timeout.", e);
-	    } catch (NoResultException e) {
-	        // Log the error and throw a NoResultException
-	        logger.error("No sprints found.", e);
-	        throw new NoResultException("No sprints found.");
-	    } catch (NonUniqueResultException e) {
-	        // Log the error and throw a NonUniqueResultException
-	        logger.error("Multiple sprints found. Please contact support for assistance.", e);
-	        throw new NonUniqueResultException("Multiple sprints found. Please contact support for assistance.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while fetching sprints.", e);
-	        throw new PersistenceException("An error occurred while fetching sprints.", e);
-	    }
+	    });
 	}
 
 
 	@Override
 	public Sprint storeSprint(Sprint sprint)
-	        throws IllegalArgumentException, TransactionRequiredException, EntityExistsException, PersistenceException {
-	    try {
-	        if (sprint.getSprintId() == 0) {
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("storeSprint", "persist/merge Sprint", () -> {
+	        touch(sprint);
+	        boolean created = sprint.getSprintId() == 0;
+	        if (created) {
 	            entityManager.persist(sprint); // New entity, use persist
 	        } else {
 	            entityManager.merge(sprint); // Existing entity, use merge
 	        }
-	        
-	        // Log the retrieved sprint from the database
-	        logger.info("Retrieved from the database: {}", sprint);
-	        
+	    
+	        evictSprint(sprint, created);
+
+	        // Log only the id; the entity's toString may touch lazy associations
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Stored sprint ID: {}", sprint.getSprintId());
+	        }
+	    
 	        return sprint;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid sprint data. Please provide valid data.", e);
-	        throw new IllegalArgumentException("Invalid sprint data. Please provide valid data.", e);
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Transaction is required to perform the store operation.", e);
-	        throw new TransactionRequiredException("Transaction is required to perform the store operation.", e);
-	    } catch (EntityExistsException e) {
-	        // Log the error and throw an EntityExistsException
-	        logger.error("Sprint already exists in the database.", e);
-	        throw new EntityExistsException("Sprint already exists in the database.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while storing the sprint.", e);
-	        throw new PersistenceException("An error occurred while storing the sprint.", e);
-	    }
+	    }, sprint.getSprintId());
 	}
 
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<SprintTasks> getAllTasksBySprintId(Sprint sprintId)
-	        throws IllegalArgumentException, TransactionRequiredException, QueryTimeoutException, PersistenceException,
-	        NoResultException, NonUniqueResultException {
-	    try {
-	        // Construct the query to retrieve all tasks by sprint ID
-	        String query = "SELECT st FROM SprintTasks st WHERE st.id.sprnId = :sprintId";
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getAllTasksBySprintId", SprintQuery.TASKS_BY_SPRINT.getJpql(), () -> {
 	        // Set the sprint ID parameter in the query
-	        List<SprintTasks> tasks = entityManager.createQuery(query, SprintTasks.class)
+	        List<SprintTasks> tasks = namedQuery(SprintQuery.TASKS_BY_SPRINT, SprintTasks.class)
 	                .setParameter("sprintId", sprintId).getResultList();
 	        // Log the successful retrieval of tasks
-	        logger.info("Successfully retrieved all tasks for sprint ID: " + sprintId);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} tasks for sprint ID: {}", tasks.size(), sprintId == null ? null : sprintId.getSprintId());
+	        }
 	        return tasks;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid sprint ID. Please provide a valid ID.", e);
-	        throw new IllegalArgumentException("Invalid sprint ID. Please provide a valid ID.", e);
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Transaction is required to perform the query operation.", e);
-	        throw new TransactionRequiredException("Transaction is required to perform the query operation.");
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("The execution of the query has exceeded the specified timeout.", e);
-	        throw new QueryTimeoutException("The execution of the query has exceeded the specified timeout.", e);
-	    } catch (NoResultException e) {
-	        // Log the error and throw a NoResultException
-	        logger.error("No tasks found for the specified sprint ID.", e);
-	        throw new NoResultException("No tasks found for the specified sprint ID.");
-	    } catch (NonUniqueResultException e) {
-	        // Log the error and throw a NonUniqueResultException
-	        logger.error("Multiple tasks found for the specified sprint ID.", e);
-	        throw new NonUniqueResultException("Multiple tasks found for the specified sprint ID.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while fetching tasks for the sprint.", e);
-	        throw new PersistenceException("An error occurred while fetching tasks for the sprint.");
-	    }
+	    }, sprintId == null ? null : sprintId.getSprintId());
 	}
 
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<ModuleDTO> getSprintModulesByProjectId(int projectId)
-	        throws IllegalArgumentException, QueryTimeoutException, PersistenceException, NoResultException {
-	    try {
-	        // Convert the projectId to short if necessary
-	        short pid = (short) projectId;
-	        // Construct the query to retrieve sprint modules by project ID
-	        String query = "SELECT m FROM com.pennant.prodmtr.model.Entity.Module m WHERE m.moduleProject.projectId = :projectId AND m.moduleId NOT IN (SELECT s.moduleId.id FROM com.pennant.prodmtr.model.Entity.Sprint s)";
-	        // Create a typed query and set the projectId parameter
-	        TypedQuery<Module> typedQuery = entityManager.createQuery(query, Module.class);
-	        typedQuery.setParameter("projectId", pid);
-	        
-	        // Execute the query and retrieve the list of modules
-	        List<Module> moduleList = typedQuery.getResultList();
-	        
-	        // Log the retrieved modules
-	        for (Module m : moduleList) {
-	            logger.info("Retrieved module: " + m);
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintModulesByProjectId", SprintQuery.UNASSIGNED_MODULES.getJpql(), () -> {
+	        boolean useCache = isCacheUsable();
+	        List<ModuleDTO> cachedModules = useCache ? projectModulesCache.getIfPresent(projectId) : null;
+	        if (cachedModules != null) {
+	            return cachedModules;
 	        }
-	        
-	        // Convert the modules to ModuleDTO objects
-	        List<ModuleDTO> moduleDTOList = new ArrayList<>();
-	        for (Module m : moduleList) {
-	            ModuleDTO md = ModuleDTO.fromEntity(m);
-	            moduleDTOList.add(md);
+	        long generation = projectModulesCache.generation();
+	        List<ModuleDTO> moduleDTOList = ReadReplicaRoutingDataSource.readFromPrimary(
+	                () -> loadSprintModules(projectId, 0, 0));
+	    
+	        moduleDTOList = Collections.unmodifiableList(moduleDTOList);
+	        if (useCache && !ReadReplicaRoutingDataSource.isReplicaConnectionBound()) {
+	            projectModulesCache.put(projectId, moduleDTOList, generation);
 	        }
-	        
-	        logger.info("Module: " + moduleList.get(0) + "  divider  " + moduleDTOList.get(0).getModl_id());
-	        
 	        return moduleDTOList;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid project ID. Please provide a valid ID.", e);
-	        throw new IllegalArgumentException("Invalid project ID. Please provide a valid ID.", e);
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("The execution of the query has exceeded the specified timeout.", e);
-	        throw new QueryTimeoutException("The execution of the query has exceeded the specified timeout.", e);
-	    } catch (NoResultException e) {
-	        // Log the error and throw a NoResultException
-	        logger.error("No sprint modules found for the specified project ID.", e);
-	        throw new NoResultException("No sprint modules found for the specified project ID.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while retrieving sprint modules.", e);
-	        throw new PersistenceException("An error occurred while retrieving sprint modules.", e);
+	    }, projectId);
+	}
+
+	// Page of the modules returned by getSprintModulesByProjectId, ordered by module id. Not cached.
+	@Transactional(readOnly = true)
+	public List<ModuleDTO> getSprintModulesByProjectId(int projectId, int offset, int limit)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintModulesByProjectIdPage", SprintQuery.UNASSIGNED_MODULES.getJpql(), () -> {
+	        if (offset < 0) {
+	            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+	        }
+	        return loadSprintModules(projectId, offset, checkPageSize(limit));
+	    }, projectId, offset, limit);
+	}
+
+	// Modules of the project that no sprint has been created for yet. NOT EXISTS scoped to the project
+	// lets the database stop at the first matching sprint of that project instead of materialising the
+	// module ids of every sprint, and unlike NOT IN it is not emptied by a sprint with a null module.
+	// A limit of 0 returns all rows.
+	private List<ModuleDTO> loadSprintModules(int projectId, int offset, int limit) {
+	    // Convert the projectId to short if necessary
+	    short pid = (short) projectId;
+	    TypedQuery<Module> typedQuery = namedQuery(SprintQuery.UNASSIGNED_MODULES, Module.class);
+	    typedQuery.setParameter("projectId", pid);
+	    // The modules are only mapped to DTOs, so skip the dirty-checking snapshot
+	    typedQuery.setHint(HINT_READ_ONLY, true);
+	    if (limit > 0) {
+	        typedQuery.setFirstResult(offset).setMaxResults(limit);
+	    }
+	    
+	    // Execute the query and retrieve the list of modules
+	    List<Module> moduleList = typedQuery.getResultList();
+	    
+	    // Per-row detail is only produced at TRACE
+	    if (logger.isTraceEnabled()) {
+	        for (Module m : moduleList) {
+	            logger.trace("Retrieved module: {}", m);
+	        }
 	    }
+	    
+	    // Convert the modules to ModuleDTO objects
+	    List<ModuleDTO> moduleDTOList = new ArrayList<>();
+	    for (Module m : moduleList) {
+	        ModuleDTO md = ModuleDTO.fromEntity(m);
+	        moduleDTOList.add(md);
+	    }
+	    
+	    if (logger.isDebugEnabled()) {
+	        logger.debug("Retrieved {} unassigned modules for project ID: {}", moduleDTOList.size(), projectId);
+	    }
+	    
+	    // Nothing keeps the entities after this point; drop them from the persistence context
+	    moduleList.forEach(entityManager::detach);
+	    return moduleDTOList;
 	}
 
 
+	@Transactional(readOnly = true)
 	public List<FunctionalUnit> getFunctionalUnitsByModId(int modlId, int prjid)
-	        throws IllegalArgumentException, QueryTimeoutException, PersistenceException {
-	    try {
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getFunctionalUnitsByModId", SprintQuery.OPEN_FUNCTIONAL_UNITS.getJpql(), () -> {
 	        // Convert the modlId and prjid to short if necessary
 	        short mId = (short) modlId;
 	        short pId = (short) prjid;
 	        String funstatus = null;
-	        // Construct the query to retrieve functional units by module ID and project ID
-	        String query = "SELECT fu FROM FunctionalUnit fu WHERE fu.id.module.id = :modlId AND fu.projectId.projectId = :prjid AND fu.funStatus is null";
-	        
+	    
 	        // Create a typed query and set the modlId and prjid parameters
-	        TypedQuery<FunctionalUnit> typedQuery = entityManager.createQuery(query, FunctionalUnit.class);
+	        TypedQuery<FunctionalUnit> typedQuery = namedQuery(SprintQuery.OPEN_FUNCTIONAL_UNITS, FunctionalUnit.class);
 	        typedQuery.setParameter("modlId", mId);
 	        typedQuery.setParameter("prjid", pId);
-	        
+	    
 	        // Execute the query and retrieve the list of functional units
 	        List<FunctionalUnit> functionalUnits = typedQuery.getResultList();
-	        
-	        // Log the retrieved functional units
-	        for (FunctionalUnit fu : functionalUnits) {
-	            logger.info("Retrieved functional unit: " + fu);
+	    
+	        // Summary at DEBUG, per-row detail only at TRACE
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} functional units for module ID: {}", functionalUnits.size(), modlId);
 	        }
-	        
+	        if (logger.isTraceEnabled()) {
+	            for (FunctionalUnit fu : functionalUnits) {
+	                logger.trace("Retrieved functional unit: {}", fu);
+	            }
+	        }
+	    
 	        return functionalUnits;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid module or project ID. Please provide valid IDs.", e);
-	        throw new IllegalArgumentException("Invalid module or project ID. Please provide valid IDs.", e);
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("The execution of the query has exceeded the specified timeout.", e);
-	        throw new QueryTimeoutException("The execution of the query has exceeded the specified timeout.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while retrieving functional units.", e);
-	        throw new PersistenceException("An error occurred while retrieving functional units.", e);
-	    }
+	    }, modlId, prjid);
 	}
 
 
 	public Task storeTask(Task task)
-	        throws IllegalArgumentException, TransactionRequiredException, PersistenceException {
-	    try {
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("storeTask", "persist/merge Task", () -> {
+	        touch(task);
 	        if (task.getTaskId() == 0) {
 	            entityManager.persist(task); // New entity, use persist
-	            logger.info("Stored new task: " + task);
+	            if (logger.isDebugEnabled()) {
+	                logger.debug("Stored new task ID: {}", task.getTaskId());
+	            }
 	        } else {
 	            entityManager.merge(task); // Existing entity, use merge
-	            logger.info("Updated task: " + task);
+	            if (logger.isDebugEnabled()) {
+	                logger.debug("Updated task ID: {}", task.getTaskId());
+	            }
 	        }
+	        refreshBoards(task.getTaskId());
 	        return task;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid task. Please provide a valid task.", e);
-	        throw new IllegalArgumentException("Invalid task. Please provide a valid task.", e);
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Failed to store the task. Transaction is required.", e);
-	        throw new TransactionRequiredException("Failed to store the task. Transaction is required.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while storing the task. Please try again later.", e);
-	        throw new PersistenceException("An error occurred while storing the task. Please try again later.", e);
-	    }
+	    }, task.getTaskId());
 	}
 
 
 	@Override
-	public List<UserDto> getAllResources() throws PersistenceException {
-	    try {
-	        String jpql = "SELECT r FROM User r";
-	        TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
-	        List<User> users = query.getResultList();
+	@Transactional(readOnly = true)
+	public List<UserDto> getAllResources() throws SprintDaoException {
+	    return call("getAllResources", SprintQuery.ALL_RESOURCES.getJpql(), () -> {
+	        boolean useCache = isCacheUsable();
+	        List<UserDto> cachedResources = useCache ? resourcesCache.getIfPresent(ALL_RESOURCES_KEY) : null;
+	        if (cachedResources != null) {
+	            return cachedResources;
+	        }
+	        long generation = resourcesCache.generation();
+	        TypedQuery<User> query = namedQuery(SprintQuery.ALL_RESOURCES, User.class);
+	        query.setHint(HINT_READ_ONLY, true);
+	        List<User> users = ReadReplicaRoutingDataSource.readFromPrimary(query::getResultList);
 
-	        List<UserDto> userDtos = users.stream().map(UserDto::fromEntity).collect(Collectors.toList());
+	        List<UserDto> userDtos = Collections.unmodifiableList(toDetachedDtos(users, UserDto::fromEntity));
+	        if (useCache && !ReadReplicaRoutingDataSource.isReplicaConnectionBound()) {
+	            resourcesCache.put(ALL_RESOURCES_KEY, userDtos, generation);
+	        }
 
 	        // Log the number of resources retrieved
-	        logger.info("Retrieved {} resources.", userDtos.size());
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} resources.", userDtos.size());
+	        }
 
 	        return userDtos;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid query. Please provide a valid JPQL query.", e);
-	        throw new IllegalArgumentException("Invalid query. Please provide a valid JPQL query.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while retrieving resources. Please try again later.", e);
-	        throw new PersistenceException("An error occurred while retrieving resources. Please try again later.", e);
-	    }
+	    });
 	}
 
 	@Override
-	public void storeSprintResource(SprintResource src) throws PersistenceException {
-	    try {
+	public void storeSprintResource(SprintResource src) throws SprintDaoException {
+	    run("storeSprintResource", "persist SprintResource", () -> {
 	        // Store the sprint resource using the entity manager
 	        entityManager.persist(src);
+	        evictResources();
+	        addBoardResource(src);
 
 	        // Log a success message
-	        logger.info("Sprint resource stored successfully.");
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid sprint resource. Please provide a valid sprint resource.", e);
-	        throw new IllegalArgumentException("Invalid sprint resource. Please provide a valid sprint resource.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while storing the sprint resource. Please try again later.", e);
-	        throw new PersistenceException("An error occurred while storing the sprint resource. Please try again later.", e);
-	    }
+	        logger.debug("Sprint resource stored successfully.");
+	    });
 	}
 
-	public void storeSprintTasks(SprintTasks sprintTask) throws IllegalArgumentException, PersistenceException {
-	    try {
+	public void storeSprintTasks(SprintTasks sprintTask) throws IllegalArgumentException, SprintDaoException {
+	    run("storeSprintTasks", "persist SprintTasks", () -> {
 	        // Store the sprint task using the entity manager
+	        touch(sprintTask);
 	        entityManager.persist(sprintTask);
+	        Task task = sprintTask.getId() == null ? null : sprintTask.getId().getTaskId();
+	        if (task != null) {
+	            refreshBoards(task.getTaskId());
+	        } else {
+	            invalidateBoards();
+	        }
 
 	        // Log a success message
-	        logger.info("Sprint task stored successfully.");
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid sprint task. Please provide a valid sprint task.", e);
-	        throw new IllegalArgumentException("Invalid sprint task. Please provide a valid sprint task.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while storing the sprint task. Please try again later.", e);
-	        throw new PersistenceException("An error occurred while storing the sprint task. Please try again later.", e);
-	    }
+	        logger.debug("Sprint task stored successfully.");
+	    });
 	}
 
 	@Override
-	public List<Sprint> getSprintByProjId(int projId) throws IllegalArgumentException, PersistenceException {
-	    try {
+	@Transactional(readOnly = true)
+	public List<Sprint> getSprintByProjId(int projId) throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintByProjId", SprintQuery.SPRINTS_BY_PROJECT.getJpql(), () -> {
 	        // Create a TypedQuery to retrieve sprints by project ID
-	        TypedQuery<Sprint> query = entityManager.createQuery(
-	                "SELECT s FROM Sprint s WHERE projectId.projectId = :projId", Sprint.class);
+	        TypedQuery<Sprint> query = namedQuery(SprintQuery.SPRINTS_BY_PROJECT, Sprint.class);
 	        query.setParameter("projId", (short) projId);
+	        if (ReadReplicaRoutingDataSource.isReplicaConnectionBound()) {
+	            // Replica rows may lag the primary; read them without putting them in either cache
+	            query.setHint(HINT_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+	        } else if (isCacheUsable()) {
+	            // The query cache keeps only the sprint ids; the sprints come from the second-level cache
+	            query.setHint(HINT_CACHEABLE, true);
+	            query.setHint(HINT_CACHE_REGION, SPRINTS_BY_PROJECT_REGION);
+	        }
 
 	        // Execute the query and retrieve the list of sprints
-	        List<Sprint> sprints = query.getResultList();
+	        List<Sprint> sprints = ReadReplicaRoutingDataSource.readFromPrimary(query::getResultList);
 
 	        // Log a success message
-	        logger.info("Retrieved sprints by project ID successfully.");
+	        logger.debug("Retrieved sprints by project ID successfully.");
 
 	        return sprints;
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid project ID. Please provide a valid ID.", e);
-	        throw new IllegalArgumentException("Invalid project ID. Please provide a valid ID.", e);
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while retrieving sprints by project ID.", e);
-	        throw new PersistenceException("An error occurred while retrieving sprints by project ID.", e);
-	    }
+	    }, projId);
 	}
 
 	public void updateFunctionalstatus(int funit)
-	        throws IllegalArgumentException, TransactionRequiredException, PersistenceException, QueryTimeoutException,
-	        LockTimeoutException, PessimisticLockException, OptimisticLockException, NoResultException {
-	    String status = "Task";
-	    String qry = "UPDATE FunctionalUnit f SET f.funStatus = :status WHERE f.id.funitid = :funit";
+	        throws IllegalArgumentException, SprintDaoException {
+	    run("updateFunctionalstatus", SprintQuery.UPDATE_FUNCTIONAL_STATUS.getJpql(), () -> {
+	        String status = "Task";
 
-	    try {
 	        // Execute the update query to update the functional status
-	        entityManager.createQuery(qry)
+	        namedQuery(SprintQuery.UPDATE_FUNCTIONAL_STATUS)
 	                .setParameter("funit", funit)
 	                .setParameter("status", status)
 	                .executeUpdate();
 
 	        // Log a success message
-	        logger.info("Functional status updated successfully.");
-	    } catch (IllegalArgumentException e) {
-	        // Log the error and throw an IllegalArgumentException
-	        logger.error("Invalid functional unit. Please provide a valid functional unit ID.", e);
-	        throw new IllegalArgumentException("Invalid functional unit. Please provide a valid functional unit ID.", e);
-	    } catch (TransactionRequiredException e) {
-	        // Log the error and throw a TransactionRequiredException
-	        logger.error("Transaction is required to update the functional status.", e);
-	        throw new TransactionRequiredException("Transaction is required to update the functional status.");
-	    } catch (QueryTimeoutException e) {
-	        // Log the error and throw a QueryTimeoutException
-	        logger.error("The query execution has exceeded the specified timeout.", e);
-	        throw new QueryTimeoutException("The query execution has exceeded the specified timeout.", e);
-	    } catch (LockTimeoutException e) {
-	        // Log the error and throw a LockTimeoutException
-	        logger.error("Lock acquisition has timed out.", e);
-	        throw new LockTimeoutException("Lock acquisition has timed out.", e);
-	    } catch (PessimisticLockException e) {
-	        // Log the error and throw a PessimisticLockException
-	        logger.error("Pessimistic lock acquisition failed.", e);
-	        throw new PessimisticLockException("Pessimistic lock acquisition failed.", e);
-	    } catch (OptimisticLockException e) {
-	        // Log the error and throw an OptimisticLockException
-	        logger.error("Optimistic lock acquisition failed.", e);
-	        throw new OptimisticLockException("Optimistic lock acquisition failed.", e);
-	    } catch (NoResultException e) {
-	        // Log the error and throw a NoResultException
-	        logger.error("No result found for the provided functional unit ID.", e);
-	        throw new NoResultException("No result found for the provided functional unit ID.");
-	    } catch (PersistenceException e) {
-	        // Log the error and throw a PersistenceException
-	        logger.error("An error occurred while updating the functional status.", e);
-	        throw new PersistenceException("An error occurred while updating the functional status.", e);
+	        logger.debug("Functional status updated successfully.");
+	    }, funit);
+	}
+
+	// Keyset page of sprints: returns up to pageSize sprints whose id is greater than lastSprintId.
+	// Pass 0 for the first page and the id of the last returned sprint for the next one.
+	@Transactional(readOnly = true)
+	public List<Sprint> getSprintsAfter(int lastSprintId, int pageSize)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintsAfter", SprintQuery.SPRINT_PAGE.getJpql(), () -> {
+	        List<Sprint> sprints = namedQuery(SprintQuery.SPRINT_PAGE, Sprint.class)
+	                .setParameter("lastSprintId", lastSprintId)
+	                .setMaxResults(checkPageSize(pageSize))
+	                .getResultList();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} sprints after sprint ID {}.", sprints.size(), lastSprintId);
+	        }
+	        return sprints;
+	    }, lastSprintId, pageSize);
+	}
+
+	// Keyset page of backlog sprints, same cursor contract as getSprintsAfter
+	@Transactional(readOnly = true)
+	public List<Sprint> getBaskLogsAfter(int lastSprintId, int pageSize)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getBaskLogsAfter", SprintQuery.BACKLOG_SPRINT_PAGE.getJpql(), () -> {
+	        List<Sprint> backlogSprints = namedQuery(SprintQuery.BACKLOG_SPRINT_PAGE, Sprint.class)
+	                .setParameter("lastSprintId", lastSprintId)
+	                .setMaxResults(checkPageSize(pageSize))
+	                .getResultList();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} backlog sprints after sprint ID {}.", backlogSprints.size(), lastSprintId);
+	        }
+	        return backlogSprints;
+	    }, lastSprintId, pageSize);
+	}
+
+	// Keyset page of resources ordered by user id
+	@Transactional(readOnly = true)
+	public List<UserDto> getResourcesAfter(int lastUserId, int pageSize)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getResourcesAfter", SprintQuery.RESOURCE_PAGE.getJpql(), () -> {
+	        List<User> users = namedQuery(SprintQuery.RESOURCE_PAGE, User.class)
+	                .setParameter("lastUserId", lastUserId)
+	                .setMaxResults(checkPageSize(pageSize))
+	                .setHint(HINT_READ_ONLY, true)
+	                .getResultList();
+
+	        List<UserDto> userDtos = toDetachedDtos(users, UserDto::fromEntity);
+
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} resources after user ID {}.", userDtos.size(), lastUserId);
+	        }
+	        return userDtos;
+	    }, lastUserId, pageSize);
+	}
+
+	// The streaming methods below read through a forward-only cursor and detach every entity once it
+	// has been handed out, so the persistence context does not grow with the table. The caller must
+	// already be inside a transaction (the cursor lives on its connection; MANDATORY rejects a call
+	// without one instead of returning a stream whose cursor is already closed) and must close the
+	// stream, e.g. with try-with-resources. Lazy associations are not available on the detached rows.
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Sprint> streamAllSprints() throws IllegalArgumentException, SprintDaoException {
+	    return call("streamAllSprints", SprintQuery.ALL_SPRINTS_ORDERED.getJpql(), () -> {
+	        Stream<Sprint> sprints = namedQuery(SprintQuery.ALL_SPRINTS_ORDERED, Sprint.class)
+	                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+	                .setHint(HINT_READ_ONLY, true)
+	                .getResultStream();
+	        logger.debug("Opened sprint stream.");
+	        return sprints.map(this::detach);
+	    });
+	}
+
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<Sprint> streamBaskLogs() throws IllegalArgumentException, SprintDaoException {
+	    return call("streamBaskLogs", SprintQuery.BACKLOG_SPRINTS_ORDERED.getJpql(), () -> {
+	        Stream<Sprint> backlogSprints = namedQuery(SprintQuery.BACKLOG_SPRINTS_ORDERED, Sprint.class)
+	                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+	                .setHint(HINT_READ_ONLY, true)
+	                .getResultStream();
+	        logger.debug("Opened backlog sprint stream.");
+	        return backlogSprints.map(this::detach);
+	    });
+	}
+
+	// Users are mapped to UserDto before being detached, so fromEntity still sees a managed entity
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<UserDto> streamAllResources() throws IllegalArgumentException, SprintDaoException {
+	    return call("streamAllResources", SprintQuery.ALL_RESOURCES_ORDERED.getJpql(), () -> {
+	        Stream<User> users = namedQuery(SprintQuery.ALL_RESOURCES_ORDERED, User.class)
+	                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+	                .setHint(HINT_READ_ONLY, true)
+	                .getResultStream();
+	        logger.debug("Opened resource stream.");
+	        return users.map(user -> {
+	            UserDto userDto = UserDto.fromEntity(user);
+	            entityManager.detach(user);
+	            return userDto;
+	        });
+	    });
+	}
+
+	// Backlog engine: one grouped join from Sprint to the open tasks of its module, returning each
+	// backlog sprint with its open-task count so callers do not need getTasks(modlId) per sprint.
+	// Recommended supporting index: CREATE INDEX idx_task_module_completed ON Task (module, taskCompletedDateTime)
+	// (use the mapped column names). With it the open tasks are read as one index range scan per module,
+	// which getBaskLogs and its paged and streamed variants use as well to select the backlog sprints.
+	@Transactional(readOnly = true)
+	public List<BacklogSprintDTO> getBacklogWithOpenTaskCounts()
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getBacklogWithOpenTaskCounts", SprintQuery.BACKLOG_OPEN_TASK_COUNTS.getJpql(), () -> {
+	        List<Object[]> rows = namedQuery(SprintQuery.BACKLOG_OPEN_TASK_COUNTS, Object[].class).getResultList();
+
+	        List<BacklogSprintDTO> backlog = new ArrayList<>(rows.size());
+	        for (Object[] row : rows) {
+	            backlog.add(new BacklogSprintDTO(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+	                    ((Number) row[2]).intValue(), ((Number) row[3]).longValue()));
+	        }
+
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} backlog sprints with open task counts.", backlog.size());
+	        }
+	        return backlog;
+	    });
+	}
+
+	// Bulk variants of storeSprintTasks / storeSprintResource / storeTask. Rows are persisted in JDBC
+	// batches of INSERT_BATCH_SIZE; after each batch is flushed its rows are detached, so the
+	// persistence context does not grow with the collection. Other managed entities are left alone.
+	// Tasks with an IDENTITY id are inserted one by one by Hibernate regardless of the batch size.
+	public BatchInsertSummary storeSprintTasks(Collection<SprintTasks> sprintTasks)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("storeSprintTasksBatch", "persist SprintTasks batch", () -> {
+	        Set<Integer> sprintIds = sprintIdsOf(sprintTasks);
+	        BatchInsertSummary summary = persistInBatches(sprintTasks, true);
+	        if (sprintIds == null) {
+	            invalidateBoards();
+	        } else {
+	            for (Integer sprintId : sprintIds) {
+	                invalidateBoard(sprintId);
+	            }
+	        }
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Stored {} sprint tasks in {} batches.", summary.getTotalRows(), summary.getBatchCount());
+	        }
+	        return summary;
+	    }, sprintTasks == null ? 0 : sprintTasks.size());
+	}
+
+	public BatchInsertSummary storeSprintResources(Collection<SprintResource> sprintResources)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("storeSprintResources", "persist SprintResource batch", () -> {
+	        BatchInsertSummary summary = persistInBatches(sprintResources, true);
+	        evictResources();
+	        invalidateBoards();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Stored {} sprint resources in {} batches.", summary.getTotalRows(), summary.getBatchCount());
+	        }
+	        return summary;
+	    }, sprintResources == null ? 0 : sprintResources.size());
+	}
+
+	// Only new tasks (task id 0) are accepted here; updates still go through storeTask(Task)
+	public BatchInsertSummary storeTasks(Collection<Task> tasks)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("storeTasks", "persist Task batch", () -> {
+	        if (tasks == null) {
+	            throw new IllegalArgumentException("Entities to store must not be null.");
+	        }
+	        for (Task task : tasks) {
+	            if (task.getTaskId() != 0) {
+	                throw new IllegalArgumentException("Task " + task.getTaskId() + " already has an id.");
+	            }
+	        }
+	        BatchInsertSummary summary = persistInBatches(tasks, true);
+	        invalidateBoards();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Stored {} tasks in {} batches.", summary.getTotalRows(), summary.getBatchCount());
+	        }
+	        return summary;
+	    }, tasks == null ? 0 : tasks.size());
+	}
+
+	// detach drops each flushed batch from the persistence context; pass false when the caller still
+	// works with the persisted entities, as provisionSprint does when building the link rows
+	private BatchInsertSummary persistInBatches(Collection<?> entities, boolean detach) {
+	    if (entities == null) {
+	        throw new IllegalArgumentException("Entities to store must not be null.");
+	    }
+	    int batchCount = (entities.size() + INSERT_BATCH_SIZE - 1) / INSERT_BATCH_SIZE;
+	    int[] batchSizes = new int[batchCount];
+	    long[] batchMillis = new long[batchCount];
+
+	    Session session = entityManager.unwrap(Session.class);
+	    Integer previousBatchSize = session.getJdbcBatchSize();
+	    session.setJdbcBatchSize(INSERT_BATCH_SIZE);
+	    try {
+	        // Flush pending work first so it is not attributed to the first batch
+	        entityManager.flush();
+
+	        int batch = 0;
+	        int inBatch = 0;
+	        long batchStart = System.nanoTime();
+	        List<Object> pending = new ArrayList<>(INSERT_BATCH_SIZE);
+	        for (Object entity : entities) {
+	            touch(entity);
+	            entityManager.persist(entity);
+	            pending.add(entity);
+	            if (++inBatch == INSERT_BATCH_SIZE) {
+	                entityManager.flush();
+	                detachAll(pending, detach);
+	                batchSizes[batch] = inBatch;
+	                batchMillis[batch++] = (System.nanoTime() - batchStart) / 1_000_000;
+	                inBatch = 0;
+	                batchStart = System.nanoTime();
+	            }
+	        }
+	        if (inBatch > 0) {
+	            entityManager.flush();
+	            detachAll(pending, detach);
+	            batchSizes[batch] = inBatch;
+	            batchMillis[batch] = (System.nanoTime() - batchStart) / 1_000_000;
+	        }
+	        return new BatchInsertSummary(batchSizes, batchMillis);
+	    } finally {
+	        session.setJdbcBatchSize(previousBatchSize);
+	    }
+	}
+
+	private void detachAll(List<Object> entities, boolean detach) {
+	    if (detach) {
+	        for (Object entity : entities) {
+	            entityManager.detach(entity);
+	        }
+	    }
+	    entities.clear();
+	}
+
+	// Set-based replacement for calling updateFunctionalstatus once per unit: one UPDATE per chunk of
+	// IN_LIST_CHUNK_SIZE ids. Returns the total number of functional units updated.
+	public int updateFunctionalStatus(Collection<Integer> funitIds, String status)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("updateFunctionalStatus", SprintQuery.UPDATE_FUNCTIONAL_STATUS_IN.getJpql(), () -> {
+	        return updateFunctionalStatusInChunks(funitIds, status, 0);
+	    }, status, funitIds == null ? 0 : funitIds.size());
+	}
+
+	// Same as above, but when lockTimeoutMillis is positive the update gives up instead of queueing behind
+	// other writers, and a SprintDaoTimeoutException is thrown. The timeout is applied as the database's
+	// lock-wait timeout for the duration of the update (MySQL/MariaDB innodb_lock_wait_timeout,
+	// PostgreSQL lock_timeout) and as the JDBC statement timeout. Both work in whole seconds on at least
+	// one side, so the value is rounded up to whole seconds and values below 1000 ms are rejected.
+	public int updateFunctionalStatus(Collection<Integer> funitIds, String status, int lockTimeoutMillis)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("updateFunctionalStatusWithTimeout", SprintQuery.UPDATE_FUNCTIONAL_STATUS_IN.getJpql(), () -> {
+	        return updateFunctionalStatusInChunks(funitIds, status, lockTimeoutMillis);
+	    }, status, funitIds == null ? 0 : funitIds.size(), lockTimeoutMillis);
+	}
+
+	// Provisions a whole sprint in the current transaction: the sprint, its tasks in JDBC batches, one
+	// set-based FunctionalUnit status update, then the SprintTasks and SprintResource rows built from
+	// the generated ids. Any failure rolls back every stage.
+	public SprintProvisioningResult provisionSprint(SprintPlan plan)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("provisionSprint", "provision SprintPlan", () -> {
+	        if (plan == null || plan.getSprint() == null || plan.getSprint().getSprintId() != 0) {
+	            throw new IllegalArgumentException("A sprint plan with a new sprint is required.");
+	        }
+	        if (!plan.getTasks().isEmpty() && plan.getSprintTaskFactory() == null
+	                || !plan.getResourceIds().isEmpty() && plan.getSprintResourceFactory() == null) {
+	            throw new IllegalArgumentException("Sprint task and sprint resource factories are required.");
+	        }
+	        Sprint sprint = plan.getSprint();
+
+	        long start = System.nanoTime();
+	        touch(sprint);
+	        entityManager.persist(sprint);
+	        entityManager.flush();
+	        long sprintMillis = (System.nanoTime() - start) / 1_000_000;
+
+	        BatchInsertSummary tasks = persistInBatches(plan.getTasks(), false);
+
+	        start = System.nanoTime();
+	        int functionalUnitsUpdated = plan.getFunctionalUnitIds().isEmpty() ? 0
+	                : updateFunctionalStatusInChunks(plan.getFunctionalUnitIds(), plan.getFunctionalUnitStatus(), 0);
+	        long functionalUnitMillis = (System.nanoTime() - start) / 1_000_000;
+
+	        List<SprintTasks> sprintTaskRows = new ArrayList<>(plan.getTasks().size());
+	        for (Task task : plan.getTasks()) {
+	            sprintTaskRows.add(plan.getSprintTaskFactory().apply(sprint, task));
+	        }
+	        BatchInsertSummary sprintTasks = persistInBatches(sprintTaskRows, false);
+
+	        List<SprintResource> sprintResourceRows = new ArrayList<>(plan.getResourceIds().size());
+	        for (Integer resourceId : plan.getResourceIds()) {
+	            sprintResourceRows.add(plan.getSprintResourceFactory().apply(sprint, resourceId));
+	        }
+	        BatchInsertSummary sprintResources = persistInBatches(sprintResourceRows, false);
+
+	        // The links only touch the new sprint's board, which evictSprint drops; the tasks are new
+	        evictSprint(sprint, true);
+	        if (!sprintResourceRows.isEmpty()) {
+	            evictResources();
+	        }
+
+	        SprintProvisioningResult result = new SprintProvisioningResult(sprint, sprintMillis, tasks,
+	                functionalUnitsUpdated, functionalUnitMillis, sprintTasks, sprintResources);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Provisioned sprint ID {} in {} ms.", sprint.getSprintId(), result.getTotalMillis());
+	        }
+	        return result;
+	    }, plan == null ? 0 : plan.getTasks().size(), plan == null ? 0 : plan.getResourceIds().size());
+	}
+
+	// Versioned update of a sprint by id: one UPDATE ... WHERE sprintId = :id AND version = :version that
+	// sets the given attributes and increments the version, without loading the sprint first. Returns
+	// the new version; throws SprintDaoConflictException when the sprint was changed since expectedVersion
+	// was read (or no longer exists). Managed copies in the current persistence context are not refreshed.
+	public int updateSprint(int sprintId, int expectedVersion, Map<String, Object> changes)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("updateSprint", "versioned UPDATE Sprint", () -> {
+	        int version = versionedUpdate(Sprint.class, "sprintId", sprintId, expectedVersion, changes);
+	        evictSprintId(sprintId);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Updated sprint ID {} to version {}.", sprintId, version);
+	        }
+	        return version;
+	    }, version -> 1, sprintId, expectedVersion, changes == null ? null : changes.keySet());
+	}
+
+	// Versioned update of a task by id: one UPDATE ... WHERE taskId = :id AND version = :version that
+	// sets the given attributes and increments the version, without loading the task first. Returns
+	// the new version; throws SprintDaoConflictException when the task was changed since expectedVersion
+	// was read (or no longer exists). Managed copies in the current persistence context are not refreshed.
+	public int updateTask(int taskId, int expectedVersion, Map<String, Object> changes)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("updateTask", "versioned UPDATE Task", () -> {
+	        int version = versionedUpdate(Task.class, "taskId", taskId, expectedVersion, changes);
+	        refreshBoards(taskId);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Updated task ID {} to version {}.", taskId, version);
+	        }
+	        return version;
+	    }, version -> 1, taskId, expectedVersion, changes == null ? null : changes.keySet());
+	}
+
+	// getAllTasksBySprintId with the sprint, the task and the task associations of the given profile
+	// join-fetched in the same statement, so rendering the rows does not trigger a lazy load per task
+	@Transactional(readOnly = true)
+	public List<SprintTasks> getAllTasksBySprintId(Sprint sprintId, TaskFetchProfile profile)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getAllTasksBySprintIdWithProfile", SprintQuery.TASKS_BY_SPRINT.getJpql(), () -> {
+	        List<SprintTasks> tasks = namedQuery(tasksBySprintQuery(profile), SprintTasks.class)
+	                .setParameter("sprintId", sprintId)
+	                .getResultList();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} tasks with the {} profile for sprint ID: {}", tasks.size(), profile,
+	                    sprintId == null ? null : sprintId.getSprintId());
+	        }
+	        return tasks;
+	    }, sprintId == null ? null : sprintId.getSprintId(), profile);
+	}
+
+	// getTasks with the associations of the given profile join-fetched in the same statement
+	@Transactional(readOnly = true)
+	public List<Task> getTasks(int modlId, TaskFetchProfile profile)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getTasksWithProfile", SprintQuery.TASKS_BY_MODULE.getJpql(), () -> {
+	        List<Task> tasks = namedQuery(tasksByModuleQuery(profile), Task.class)
+	                .setParameter("modlId", modlId)
+	                .getResultList();
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} tasks with the {} profile for module ID: {}", tasks.size(), profile, modlId);
+	        }
+	        return tasks;
+	    }, modlId, profile);
+	}
+
+	private int updateFunctionalStatusInChunks(Collection<Integer> funitIds, String status, int lockTimeoutMillis) {
+	    if (funitIds == null || status == null) {
+	        throw new IllegalArgumentException("Functional unit ids and status must not be null.");
+	    }
+	    if (lockTimeoutMillis > 0 && lockTimeoutMillis < 1000) {
+	        throw new IllegalArgumentException("Lock timeout must be 0 or at least 1000 ms: " + lockTimeoutMillis);
+	    }
+	    List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(funitIds));
+	    int timeoutSeconds = (int) ((lockTimeoutMillis + 999L) / 1000);
+
+	    int updated = 0;
+	    Runnable restoreLockWait = timeoutSeconds > 0 ? setLockWaitTimeout(timeoutSeconds) : () -> { };
+	    try {
+	        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK_SIZE) {
+	            Query update = namedQuery(SprintQuery.UPDATE_FUNCTIONAL_STATUS_IN)
+	                    .setParameter("funits", ids.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, ids.size())))
+	                    .setParameter("status", status);
+	            if (timeoutSeconds > 0) {
+	                update.setHint(HINT_QUERY_TIMEOUT, timeoutSeconds * 1000);
+	            }
+	            updated += update.executeUpdate();
+	        }
+	    } finally {
+	        restoreLockWait.run();
+	    }
+
+	    if (logger.isDebugEnabled()) {
+	        logger.debug("Functional status set to {} for {} of {} functional units.", status, updated, ids.size());
+	    }
+	    return updated;
+	}
+
+	// Sets the lock-wait timeout of the current connection and returns the action that restores the
+	// previous value. PostgreSQL's SET LOCAL would otherwise apply to every later statement of the
+	// caller's transaction, and MySQL/MariaDB's session variable to later users of the pooled connection.
+	// Other databases only get the statement timeout.
+	private Runnable setLockWaitTimeout(int timeoutSeconds) {
+	    Session session = entityManager.unwrap(Session.class);
+	    Work restore = session.doReturningWork(connection -> {
+	        String product = connection.getMetaData().getDatabaseProductName();
+	        try (Statement statement = connection.createStatement()) {
+	            if ("PostgreSQL".equals(product)) {
+	                String current;
+	                try (ResultSet result = statement.executeQuery("SELECT current_setting('lock_timeout')")) {
+	                    result.next();
+	                    current = result.getString(1);
+	                }
+	                statement.execute("SET LOCAL lock_timeout = '" + timeoutSeconds + "s'");
+	                return restoringConnection -> {
+	                    try (PreparedStatement reset = restoringConnection.prepareStatement(
+	                            "SELECT set_config('lock_timeout', ?, true)")) {
+	                        reset.setString(1, current);
+	                        reset.execute();
+	                    }
+	                };
+	            }
+	            if ("MySQL".equals(product) || "MariaDB".equals(product)) {
+	                int current;
+	                try (ResultSet result = statement.executeQuery("SELECT @@SESSION.innodb_lock_wait_timeout")) {
+	                    result.next();
+	                    current = result.getInt(1);
+	                }
+	                statement.execute("SET SESSION innodb_lock_wait_timeout = " + timeoutSeconds);
+	                return restoringConnection -> {
+	                    try (Statement reset = restoringConnection.createStatement()) {
+	                        reset.execute("SET SESSION innodb_lock_wait_timeout = " + current);
+	                    }
+	                };
+	            }
+	            return null;
+	        }
+	    });
+	    if (restore == null) {
+	        return () -> { };
+	    }
+	    return () -> session.doWork(restore);
+	}
+
+	// Builds and runs the versioned UPDATE for updateSprint / updateTask. Attribute names are checked
+	// against the metamodel before they are put into the statement.
+	private int versionedUpdate(Class<?> type, String idAttribute, int id, int expectedVersion,
+	        Map<String, Object> changes) {
+	    if (changes == null || changes.isEmpty()) {
+	        throw new IllegalArgumentException("At least one attribute to update is required.");
+	    }
+	    if (!Versioned.class.isAssignableFrom(type)) {
+	        throw new IllegalArgumentException(type.getSimpleName() + " is not versioned.");
+	    }
+	    EntityType<?> entityType = entityManager.getMetamodel().entity(type);
+	    boolean changeTracked = ChangeTracked.class.isAssignableFrom(type);
+
+	    StringBuilder jpql = new StringBuilder("UPDATE ").append(type.getSimpleName()).append(" e SET ");
+	    List<Object> values = new ArrayList<>(changes.size());
+	    for (Map.Entry<String, Object> change : changes.entrySet()) {
+	        String attribute = change.getKey();
+	        Attribute<?, ?> mapped = entityType.getAttribute(attribute);
+	        if (mapped.isCollection() || attribute.equals(idAttribute) || attribute.equals(VERSION_ATTRIBUTE)
+	                || changeTracked && attribute.equals(LAST_MODIFIED_ATTRIBUTE)) {
+	            throw new IllegalArgumentException("Attribute cannot be updated by id: " + attribute);
+	        }
+	        jpql.append("e.").append(attribute).append(" = :p").append(values.size()).append(", ");
+	        values.add(change.getValue());
+	    }
+	    jpql.append("e.").append(VERSION_ATTRIBUTE).append(" = e.").append(VERSION_ATTRIBUTE).append(" + 1");
+	    if (changeTracked) {
+	        jpql.append(", e.").append(LAST_MODIFIED_ATTRIBUTE).append(" = :lastModified");
+	    }
+	    jpql.append(" WHERE e.").append(idAttribute).append(" = :id AND e.").append(VERSION_ATTRIBUTE).append(" = :version");
+
+	    Query update = entityManager.createQuery(jpql.toString())
+	            .setParameter("id", id)
+	            .setParameter("version", expectedVersion);
+	    for (int i = 0; i < values.size(); i++) {
+	        update.setParameter("p" + i, values.get(i));
+	    }
+	    if (changeTracked) {
+	        update.setParameter("lastModified", new Timestamp(System.currentTimeMillis()));
+	    }
+	    if (update.executeUpdate() == 0) {
+	        throw new OptimisticLockException(type.getSimpleName() + " " + id + " is not at version " + expectedVersion + ".");
+	    }
+	    return expectedVersion + 1;
+	}
+
+	private static SprintQuery tasksByModuleQuery(TaskFetchProfile profile) {
+	    if (profile == null) {
+	        throw new IllegalArgumentException("Fetch profile must not be null.");
+	    }
+	    switch (profile) {
+	        case SUMMARY:
+	            return SprintQuery.TASKS_BY_MODULE_SUMMARY;
+	        case BOARD:
+	            return SprintQuery.TASKS_BY_MODULE_BOARD;
+	        default:
+	            throw new IllegalArgumentException("No task query for fetch profile " + profile + ".");
+	    }
+	}
+
+	private static SprintQuery tasksBySprintQuery(TaskFetchProfile profile) {
+	    if (profile == null) {
+	        throw new IllegalArgumentException("Fetch profile must not be null.");
+	    }
+	    switch (profile) {
+	        case SUMMARY:
+	            return SprintQuery.TASKS_BY_SPRINT_SUMMARY;
+	        case BOARD:
+	            return SprintQuery.TASKS_BY_SPRINT_BOARD;
+	        default:
+	            throw new IllegalArgumentException("No sprint task query for fetch profile " + profile + ".");
+	    }
+	}
+
+	// Burndown computed in the database: one grouped row per completion day plus one row (null day)
+	// for the tasks still open, instead of loading every task of the sprint. Covers the tasks linked
+	// to the sprint in SprintTasks.
+	@Transactional(readOnly = true)
+	public SprintBurndownDTO getSprintBurndown(int sprintId)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintBurndown", SprintQuery.SPRINT_COMPLETIONS_BY_DAY.getJpql(), () -> {
+	        List<Object[]> rows = namedQuery(SprintQuery.SPRINT_COMPLETIONS_BY_DAY, Object[].class)
+	                .setParameter("sprintId", sprintId)
+	                .getResultList();
+
+	        int totalTasks = 0;
+	        List<Object[]> completions = new ArrayList<>(rows.size());
+	        for (Object[] row : rows) {
+	            totalTasks += ((Number) row[1]).intValue();
+	            if (row[0] != null) {
+	                completions.add(row);
+	            }
+	        }
+
+	        if (completions.isEmpty()) {
+	            return new SprintBurndownDTO(sprintId, totalTasks, new LocalDate[0], new int[0]);
+	        }
+	        // Fill the days without completions so the arrays can be plotted directly
+	        LocalDate first = toLocalDate(completions.get(0)[0]);
+	        LocalDate last = toLocalDate(completions.get(completions.size() - 1)[0]);
+	        int dayCount = (int) (last.toEpochDay() - first.toEpochDay()) + 1;
+	        LocalDate[] days = new LocalDate[dayCount];
+	        int[] remaining = new int[dayCount];
+	        int open = totalTasks;
+	        int next = 0;
+	        for (int i = 0; i < dayCount; i++) {
+	            days[i] = first.plusDays(i);
+	            if (next < completions.size() && toLocalDate(completions.get(next)[0]).equals(days[i])) {
+	                open -= ((Number) completions.get(next++)[1]).intValue();
+	            }
+	            remaining[i] = open;
+	        }
+
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Computed a {} day burndown for sprint ID: {}", dayCount, sprintId);
+	        }
+	        return new SprintBurndownDTO(sprintId, totalTasks, days, remaining);
+	    }, sprintId);
+	}
+
+	// Velocity: completed tasks per sprint of a project, grouped in the database. Sprints without a
+	// completed task have no entry.
+	@Transactional(readOnly = true)
+	public SprintVelocityDTO getCompletedTasksPerSprint(int projId)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getCompletedTasksPerSprint", SprintQuery.COMPLETED_TASKS_PER_SPRINT.getJpql(), () -> {
+	        List<Object[]> rows = namedQuery(SprintQuery.COMPLETED_TASKS_PER_SPRINT, Object[].class)
+	                .setParameter("projId", (short) projId)
+	                .getResultList();
+
+	        int[] sprintIds = new int[rows.size()];
+	        long[] completedTasks = new long[rows.size()];
+	        for (int i = 0; i < sprintIds.length; i++) {
+	            Object[] row = rows.get(i);
+	            sprintIds[i] = ((Number) row[0]).intValue();
+	            completedTasks[i] = ((Number) row[1]).longValue();
+	        }
+
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Computed velocity over {} sprints for project ID: {}", sprintIds.length, projId);
+	        }
+	        return new SprintVelocityDTO(projId, sprintIds, completedTasks);
+	    }, projId);
+	}
+
+	// Open tasks of a sprint per sprint resource, by the task's assignee. Unassigned tasks, tasks assigned
+	// to someone who is not a SprintResource of the sprint, and resources without open tasks are left out.
+	@Transactional(readOnly = true)
+	public ResourceLoadDTO getOpenTasksPerResource(int sprintId)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getOpenTasksPerResource", SprintQuery.OPEN_TASKS_PER_RESOURCE.getJpql(), () -> {
+	        List<Object[]> rows = namedQuery(SprintQuery.OPEN_TASKS_PER_RESOURCE, Object[].class)
+	                .setParameter("sprintId", sprintId)
+	                .getResultList();
+
+	        int[] userIds = new int[rows.size()];
+	        long[] openTasks = new long[rows.size()];
+	        for (int i = 0; i < userIds.length; i++) {
+	            Object[] row = rows.get(i);
+	            userIds[i] = ((Number) row[0]).intValue();
+	            openTasks[i] = ((Number) row[1]).longValue();
+	        }
+
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Computed open task load of {} resources for sprint ID: {}", userIds.length, sprintId);
+	        }
+	        return new ResourceLoadDTO(sprintId, userIds, openTasks);
+	    }, sprintId);
+	}
+
+	// Change feeds for polling clients: pass the feed returned by the previous poll (null, or
+	// ChangeFeed.startingAt(time), for the first one) and get the rows stored since then. The stores of
+	// this DAO stamp lastModified on every ChangeTracked entity, so polling cost follows the change
+	// volume instead of the table size.
+	//
+	// Stamps come from the application clock before commit, so a row can become visible after a newer
+	// one was already returned, rows can share a stamp, and nodes' clocks can drift apart. Each poll
+	// therefore re-reads CHANGE_FEED_OVERLAP_MILLIS before the watermark and drops the rows whose id and
+	// version (lastModified for unversioned SprintTasks) the previous poll already returned.
+	@Transactional(readOnly = true)
+	public ChangeFeed<Sprint> getSprintChanges(ChangeFeed<Sprint> previous)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintChanges", SprintQuery.SPRINT_CHANGES.getJpql(), () -> {
+	        List<Sprint> rows = namedQuery(SprintQuery.SPRINT_CHANGES, Sprint.class)
+	                .setParameter("since", overlapStart(previous))
+	                .getResultList();
+	        ChangeFeed<Sprint> feed = changeFeed(rows, previous);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} changed sprints up to {}.", feed.getChanges().size(), feed.getWatermark());
+	        }
+	        return feed;
+	    }, watermarkOf(previous));
+	}
+
+	@Transactional(readOnly = true)
+	public ChangeFeed<Task> getTaskChanges(int modlId, ChangeFeed<Task> previous)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getTaskChanges", SprintQuery.TASK_CHANGES.getJpql(), () -> {
+	        List<Task> rows = namedQuery(SprintQuery.TASK_CHANGES, Task.class)
+	                .setParameter("modlId", modlId)
+	                .setParameter("since", overlapStart(previous))
+	                .getResultList();
+	        ChangeFeed<Task> feed = changeFeed(rows, previous);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} changed tasks up to {}.", feed.getChanges().size(), feed.getWatermark());
+	        }
+	        return feed;
+	    }, modlId, watermarkOf(previous));
+	}
+
+	@Transactional(readOnly = true)
+	public ChangeFeed<SprintTasks> getSprintTaskChanges(Sprint sprintId, ChangeFeed<SprintTasks> previous)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintTaskChanges", SprintQuery.SPRINT_TASK_CHANGES.getJpql(), () -> {
+	        List<SprintTasks> rows = namedQuery(SprintQuery.SPRINT_TASK_CHANGES, SprintTasks.class)
+	                .setParameter("sprintId", sprintId)
+	                .setParameter("since", overlapStart(previous))
+	                .getResultList();
+	        ChangeFeed<SprintTasks> feed = changeFeed(rows, previous);
+	        if (logger.isDebugEnabled()) {
+	            logger.debug("Retrieved {} changed sprint tasks up to {}.", feed.getChanges().size(),
+	                    feed.getWatermark());
+	        }
+	        return feed;
+	    }, sprintId == null ? null : sprintId.getSprintId(), watermarkOf(previous));
+	}
+
+	// Board of one sprint from memory: task id to completion and assignee for every SprintTasks row of
+	// the sprint, and user id to assigned tasks for its resources. Only the first read of a sprint goes
+	// to the database; storeTask, updateTask, storeSprintTasks and storeSprintResource patch the cached
+	// boards after commit, the other writes drop them for a reload. At most MAX_SPRINT_BOARDS boards are
+	// kept, evicting the least recently read, and none older than MAX_BOARD_AGE_MILLIS. SUPPORTS keeps a
+	// cache hit from opening a transaction or taking a connection. A board loaded inside a read-write
+	// transaction may include its uncommitted writes and is returned without being cached. Returns null
+	// for an unknown sprint.
+	@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+	public SprintBoardSnapshot getSprintBoard(int sprintId)
+	        throws IllegalArgumentException, SprintDaoException {
+	    return call("getSprintBoard", SprintQuery.SPRINT_BOARD_TASKS.getJpql(), () -> {
+	        SprintBoardSnapshot board = sprintBoards.get(sprintId);
+	        if (board != null) {
+	            return board;
+	        }
+	        boolean useCache = isCacheUsable();
+	        long generation = sprintBoards.generation();
+	        board = ReadReplicaRoutingDataSource.readFromPrimary(() -> loadBoard(sprintId));
+	        if (board != null && useCache && !ReadReplicaRoutingDataSource.isReplicaConnectionBound()) {
+	            sprintBoards.install(sprintId, board, generation);
+	            if (logger.isDebugEnabled()) {
+	                logger.debug("Loaded board of sprint ID {} with {} tasks.", sprintId, board.getTaskCount());
+	            }
+	        }
+	        return board;
+	    }, sprintId);
+	}
+
+	// Compiles and registers every SprintQuery before the DAO takes traffic; a broken query fails startup
+	// unless it is one of the optional ones
+	@Override
+	public void afterPropertiesSet() {
+	    queryCompileMicros = SprintQueryRegistry.registerAll(entityManager.getEntityManagerFactory());
+	}
+
+	// Startup compile time in microseconds per named query
+	public Map<String, Long> getQueryCompileTimes() {
+	    return queryCompileMicros;
+	}
+
+	// Exposes the instrumentation, e.g. to change the slow-query threshold or register a listener
+	public SprintDaoMetrics getMetrics() {
+	    return metrics;
+	}
+
+	// Counters for the DTO caches, for sizing PROJECT_CACHE_SIZE / CACHE_TTL_MILLIS
+	public List<LruTtlCache.Stats> getCacheStats() {
+	    return Arrays.asList(projectModulesCache.stats(), resourcesCache.stats());
+	}
+
+	// A stored sprint changes its board and the set of modules that are still without a sprint in its
+	// project. A new sprint only affects the project it is created in; an existing one may have been
+	// moved by merge, and its previous project is not known here, so every project entry goes. The keys
+	// are dropped now and once more after commit. Each drop bumps the cache generation, so a reader that
+	// queried before the commit and puts its list after it is turned away by put instead of caching the
+	// pre-commit state until the TTL runs out. Sprint entities themselves are cached by the provider.
+	private void evictSprint(Sprint sprint, boolean created) {
+	    Runnable eviction = () -> {
+	        sprintBoards.invalidate(sprint.getSprintId());
+	        if (created && sprint.getProjectId() != null) {
+	            Number projectId = sprint.getProjectId().getProjectId();
+	            projectModulesCache.invalidate(projectId.intValue());
+	        } else {
+	            projectModulesCache.invalidateAll();
+	        }
+	    };
+	    eviction.run();
+	    runAfterCommit(eviction);
+	}
+
+	// Empties the module, resource and board caches; used by SprintDaoBenchmark to measure the loads
+	void invalidateCaches() {
+	    projectModulesCache.invalidateAll();
+	    resourcesCache.invalidateAll();
+	    sprintBoards.invalidateAll();
+	}
+
+	// Used when only the id of a changed sprint is known: its project is not, so all project entries go
+	private void evictSprintId(int sprintId) {
+	    Runnable eviction = () -> {
+	        sprintBoards.invalidate(sprintId);
+	        projectModulesCache.invalidateAll();
+	    };
+	    eviction.run();
+	    runAfterCommit(eviction);
+	}
+
+	// The DAO-side caches hold committed state only. A read-write transaction may already have written
+	// rows the caches do not reflect (or would pick up and publish before commit), so it bypasses them.
+	private static boolean isCacheUsable() {
+	    return !TransactionSynchronizationManager.isActualTransactionActive()
+	            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	// find hints for the provider's second-level cache: it stores a copy of the entity state and hands
+	// every persistence context its own instance, so callers never share a sprint. Bypassed inside a
+	// read-write transaction, as above. A transaction already reading from the replica may still hit
+	// the cache but must not fill it.
+	private static Map<String, Object> secondLevelCacheHints() {
+	    if (!isCacheUsable()) {
+	        return SECOND_LEVEL_CACHE_BYPASS;
+	    }
+	    return ReadReplicaRoutingDataSource.isReplicaConnectionBound()
+	            ? SECOND_LEVEL_CACHE_READ_ONLY
+	            : SECOND_LEVEL_CACHE_USE;
+	}
+
+	private void evictResources() {
+	    Runnable eviction = () -> resourcesCache.invalidate(ALL_RESOURCES_KEY);
+	    eviction.run();
+	    runAfterCommit(eviction);
+	}
+
+	// Re-reads one task's board columns and sprints in the current transaction and applies them to
+	// every cached board once the transaction commits: the task is added to or updated on the boards of
+	// the sprints it is linked to and removed from any other board. The generation is bumped now and
+	// again on commit even when nothing is cached, so a board loaded meanwhile is never installed stale.
+	private void refreshBoards(int taskId) {
+	    sprintBoards.beginWrite();
+	    if (sprintBoards.isEmpty()) {
+	        // Nothing to patch, but a board may be installed before this commits
+	        runAfterCommit(sprintBoards::invalidateAll);
+	        return;
+	    }
+	    List<Object[]> rows = namedQuery(SprintQuery.SPRINT_BOARD_TASK, Object[].class)
+	            .setParameter("taskId", taskId)
+	            .getResultList();
+	    if (rows.isEmpty()) {
+	        publishAfterCommit(() -> sprintBoards.updateAll(board -> board.withoutTask(taskId)));
+	        return;
+	    }
+	    int[] sprintIds = new int[rows.size()];
+	    for (int i = 0; i < sprintIds.length; i++) {
+	        sprintIds[i] = ((Number) rows.get(i)[0]).intValue();
+	    }
+	    Arrays.sort(sprintIds);
+	    Object[] row = rows.get(0);
+	    long completedAt = toEpochMillis(row[1]);
+	    int assignee = row[2] == null ? SprintBoardSnapshot.UNASSIGNED : ((Number) row[2]).intValue();
+	    publishAfterCommit(() -> sprintBoards.updateAll(
+	            board -> Arrays.binarySearch(sprintIds, board.getSprintId()) >= 0
+	                    ? board.withTask(taskId, completedAt, assignee)
+	                    : board.withoutTask(taskId)));
+	}
+
+	// Adds a newly stored resource to its sprint's cached board after commit. Without a SprintResource
+	// mapping the board query understands, all boards are dropped instead.
+	private void addBoardResource(SprintResource sprintResource) {
+	    if (!isRegistered(SprintQuery.SPRINT_RESOURCE_KEY)) {
+	        invalidateBoards();
+	        return;
+	    }
+	    sprintBoards.beginWrite();
+	    if (sprintBoards.isEmpty()) {
+	        runAfterCommit(sprintBoards::invalidateAll);
+	        return;
+	    }
+	    List<Object[]> rows = namedQuery(SprintQuery.SPRINT_RESOURCE_KEY, Object[].class)
+	            .setParameter("resource", sprintResource)
+	            .getResultList();
+	    if (rows.isEmpty() || rows.get(0)[0] == null || rows.get(0)[1] == null) {
+	        invalidateBoards();
+	        return;
+	    }
+	    int sprintId = ((Number) rows.get(0)[0]).intValue();
+	    int userId = ((Number) rows.get(0)[1]).intValue();
+	    publishAfterCommit(() -> sprintBoards.update(sprintId, board -> board.withResource(userId)));
+	}
+
+	// Sprint ids of the rows, or null if any row does not name its sprint
+	private static Set<Integer> sprintIdsOf(Collection<SprintTasks> sprintTasks) {
+	    if (sprintTasks == null) {
+	        return null;
+	    }
+	    Set<Integer> sprintIds = new HashSet<>();
+	    for (SprintTasks sprintTask : sprintTasks) {
+	        Sprint sprint = sprintTask == null || sprintTask.getId() == null ? null : sprintTask.getId().getSprnId();
+	        if (sprint == null) {
+	            return null;
+	        }
+	        sprintIds.add(sprint.getSprintId());
+	    }
+	    return sprintIds;
+	}
+
+	private void invalidateBoard(int sprintId) {
+	    Runnable invalidation = () -> sprintBoards.invalidate(sprintId);
+	    invalidation.run();
+	    runAfterCommit(invalidation);
+	}
+
+	private void invalidateBoards() {
+	    Runnable invalidation = sprintBoards::invalidateAll;
+	    invalidation.run();
+	    runAfterCommit(invalidation);
+	}
+
+	private SprintBoardSnapshot loadBoard(int sprintId) {
+	    List<Object[]> sprints = namedQuery(SprintQuery.SPRINT_BOARD_MODULE, Object[].class)
+	            .setParameter("sprintId", sprintId)
+	            .getResultList();
+	    if (sprints.isEmpty()) {
+	        return null;
+	    }
+	    int moduleId = ((Number) sprints.get(0)[1]).intValue();
+	    List<Object[]> rows = namedQuery(SprintQuery.SPRINT_BOARD_TASKS, Object[].class)
+	            .setParameter("sprintId", sprintId)
+	            .getResultList();
+	    int[] taskIds = new int[rows.size()];
+	    long[] completedAt = new long[rows.size()];
+	    int[] assignees = new int[rows.size()];
+	    for (int i = 0; i < rows.size(); i++) {
+	        Object[] row = rows.get(i);
+	        taskIds[i] = ((Number) row[0]).intValue();
+	        completedAt[i] = toEpochMillis(row[1]);
+	        assignees[i] = row[2] == null ? SprintBoardSnapshot.UNASSIGNED : ((Number) row[2]).intValue();
+	    }
+	    // Without a usable SprintResource mapping the board only knows the resources holding tasks
+	    int[] members = new int[0];
+	    if (isRegistered(SprintQuery.SPRINT_BOARD_RESOURCES)) {
+	        List<Number> userIds = namedQuery(SprintQuery.SPRINT_BOARD_RESOURCES, Number.class)
+	                .setParameter("sprintId", sprintId)
+	                .getResultList();
+	        members = userIds.stream().mapToInt(Number::intValue).sorted().distinct().toArray();
+	    }
+	    return SprintBoardSnapshot.of(sprintId, moduleId, taskIds, completedAt, assignees, members);
+	}
+
+	// Unlike runAfterCommit, runs the action right away when there is no transaction to wait for
+	private static void publishAfterCommit(Runnable action) {
+	    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+	        runAfterCommit(action);
+	    } else {
+	        action.run();
+	    }
+	}
+
+	private static void runAfterCommit(Runnable action) {
+	    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+	        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+	            @Override
+	            public void afterCommit() {
+	                action.run();
+	            }
+	        });
+	    }
+	}
+
+	// Every public method runs through call / run: the body is timed by metrics, and whatever it throws is
+	// translated to a SprintDaoException and logged once by the exception translator
+	private <T> T call(String method, String jpql, Supplier<T> body, Object... params) {
+	    try {
+	        return metrics.record(method, jpql, body, params);
+	    } catch (RuntimeException e) {
+	        throw exceptionTranslator.translate(method, e, params);
+	    }
+	}
+
+	// For bodies whose result is not a row count by itself: rowCount derives it from the result
+	private <T> T call(String method, String jpql, Supplier<T> body, ToIntFunction<? super T> rowCount,
+	        Object... params) {
+	    try {
+	        return metrics.record(method, jpql, body, rowCount, params);
+	    } catch (RuntimeException e) {
+	        throw exceptionTranslator.translate(method, e, params);
+	    }
+	}
+
+	private void run(String method, String jpql, Runnable body, Object... params) {
+	    try {
+	        metrics.run(method, jpql, body, params);
+	    } catch (RuntimeException e) {
+	        throw exceptionTranslator.translate(method, e, params);
+	    }
+	}
+
+	private boolean isRegistered(SprintQuery query) {
+	    return queryCompileMicros.containsKey(query.getQueryName());
+	}
+
+	// An optional query that was not registered at startup is compiled here, so the caller gets the
+	// provider's error for the missing mapping instead of an unknown query name
+	private <T> TypedQuery<T> namedQuery(SprintQuery query, Class<T> resultType) {
+	    if (!isRegistered(query)) {
+	        return entityManager.createQuery(query.getJpql(), resultType);
+	    }
+	    return entityManager.createNamedQuery(query.getQueryName(), resultType);
+	}
+
+	private Query namedQuery(SprintQuery query) {
+	    if (!isRegistered(query)) {
+	        return entityManager.createQuery(query.getJpql());
+	    }
+	    return entityManager.createNamedQuery(query.getQueryName());
+	}
+
+	// Maps read-only entities to DTOs and detaches each one right after, so only the DTOs stay reachable
+	private <E, D> List<D> toDetachedDtos(List<E> entities, Function<? super E, ? extends D> mapper) {
+	    List<D> dtos = new ArrayList<>(entities.size());
+	    for (E entity : entities) {
+	        dtos.add(mapper.apply(entity));
+	        entityManager.detach(entity);
+	    }
+	    return dtos;
+	}
+
+	private <T> T detach(T entity) {
+	    entityManager.detach(entity);
+	    return entity;
+	}
+
+	private static void touch(Object entity) {
+	    if (entity instanceof ChangeTracked) {
+	        ((ChangeTracked) entity).setLastModified(new Timestamp(System.currentTimeMillis()));
+	    }
+	}
+
+	private static Timestamp watermarkOf(ChangeFeed<?> previous) {
+	    return previous == null ? null : previous.getWatermark();
+	}
+
+	// Lower bound of the next change query: the overlap window before the watermark, or the epoch
+	private static Timestamp overlapStart(ChangeFeed<?> previous) {
+	    Timestamp watermark = watermarkOf(previous);
+	    return new Timestamp(watermark == null ? 0L : Math.max(0L, watermark.getTime() - CHANGE_FEED_OVERLAP_MILLIS));
+	}
+
+	// Drops the rows the previous poll already returned and remembers the keys of every row still
+	// inside the next overlap window. The rows are ordered by lastModified, so the newest is the last.
+	private <T> ChangeFeed<T> changeFeed(List<T> rows, ChangeFeed<T> previous) {
+	    Timestamp watermark = watermarkOf(previous);
+	    Set<Object> delivered = previous == null ? Collections.emptySet() : previous.getDeliveredKeys();
+	    if (rows.isEmpty()) {
+	        return new ChangeFeed<>(rows, watermark, delivered);
+	    }
+	    Timestamp newest = ((ChangeTracked) rows.get(rows.size() - 1)).getLastModified();
+	    if (watermark == null || newest.after(watermark)) {
+	        watermark = newest;
+	    }
+	    long windowStart = watermark.getTime() - CHANGE_FEED_OVERLAP_MILLIS;
+	    List<T> changes = new ArrayList<>(rows.size());
+	    Set<Object> keys = new HashSet<>();
+	    for (T row : rows) {
+	        Object key = changeKey(row);
+	        if (!delivered.contains(key)) {
+	            changes.add(row);
+	        }
+	        if (((ChangeTracked) row).getLastModified().getTime() > windowStart) {
+	            keys.add(key);
+	        }
+	    }
+	    return new ChangeFeed<>(changes, watermark, keys);
+	}
+
+	// Identifies one stored state of a row: its id plus the version, or the stamp if it has no version
+	private Object changeKey(Object row) {
+	    Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(row);
+	    Object version = row instanceof Versioned
+	            ? (Object) ((Versioned) row).getVersion()
+	            : (Object) ((ChangeTracked) row).getLastModified().getTime();
+	    return Arrays.asList(id, version);
+	}
+
+	// CAST(... AS date) comes back as java.sql.Date or LocalDate depending on the provider version
+	private static LocalDate toLocalDate(Object day) {
+	    if (day instanceof LocalDate) {
+	        return (LocalDate) day;
+	    }
+	    if (day instanceof java.sql.Date) {
+	        return ((java.sql.Date) day).toLocalDate();
+	    }
+	    return ((Date) day).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	private static long toEpochMillis(Object completed) {
+	    if (completed == null) {
+	        return SprintBoardSnapshot.OPEN;
+	    }
+	    if (completed instanceof LocalDateTime) {
+	        return ((LocalDateTime) completed).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	    }
+	    return ((Date) completed).getTime();
+	}
+
+	private static int checkPageSize(int pageSize) {
+	    if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+	        throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
 	    }
+	    return pageSize;
 	}
 }
@@ -0,0 +1,363 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pennant.prodmtr.Dao.Interface.SprintDaoTimeoutException;
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.Task;
+
+// Drives SprintDaoImpl with a number of simulated sprint planners, each looping over a weighted mix of
+// reads and writes, and reports throughput, latency percentiles per operation, lock-wait and deadlock
+// counts and connection pool saturation. The report is written as JSON so runs can be compared release
+// over release.
+//
+// The generator does not set up the database: point it at the Spring-managed (transactional) DAO bean
+// of a context backed by an embedded database and a real pool, supply the test rows through a Workload
+// and adapt the pool's MXBean (e.g. HikariPoolMXBean) to a PoolProbe.
+public class SprintDaoLoadGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SprintDaoLoadGenerator.class);
+
+	// Pool sampling period
+	private static final long POOL_SAMPLE_MILLIS = 100;
+
+	public enum Operation {
+	    GET_BACKLOG, GET_SPRINT_TASKS, GET_RESOURCES, STORE_SPRINT, STORE_TASK, UPDATE_FUNCTIONAL_STATUS
+	}
+
+	// Test data for the simulated planners; called concurrently from every planner thread
+	public interface Workload {
+	    // An existing sprint whose tasks are read
+	    Sprint sprint();
+
+	    // A new, unsaved sprint
+	    Sprint newSprint();
+
+	    // An existing task with a change applied, to be stored
+	    Task changedTask();
+
+	    // An existing functional unit id
+	    int functionalUnitId();
+	}
+
+	// Current state of the connection pool, e.g. HikariPoolMXBean::getActiveConnections and friends
+	public interface PoolProbe {
+	    int active();
+
+	    int waiting();
+
+	    int max();
+	}
+
+	private final SprintDaoImpl sprintDao;
+	private final Workload workload;
+	private final PoolProbe poolProbe;
+
+	// poolProbe may be null, in which case no pool figures are reported
+	public SprintDaoLoadGenerator(SprintDaoImpl sprintDao, Workload workload, PoolProbe poolProbe) {
+	    this.sprintDao = sprintDao;
+	    this.workload = workload;
+	    this.poolProbe = poolProbe;
+	}
+
+	// Runs users planners with the given operation weights for warmupMillis (not reported) and then
+	// durationMillis. Each planner pauses thinkTimeMillis between operations; 0 runs flat out.
+	public Report run(int users, Map<Operation, Integer> mix, long warmupMillis, long durationMillis, long thinkTimeMillis)
+	        throws InterruptedException {
+	    if (users <= 0 || durationMillis <= 0 || warmupMillis < 0 || thinkTimeMillis < 0) {
+	        throw new IllegalArgumentException("Users and duration must be positive, warmup and think time not negative.");
+	    }
+	    Operation[] schedule = schedule(mix);
+
+	    SprintDaoMetrics warmupMetrics = new SprintDaoMetrics();
+	    SprintDaoMetrics measuredMetrics = new SprintDaoMetrics();
+	    warmupMetrics.setSlowQueryThresholdMillis(Long.MAX_VALUE / 1_000_000L);
+	    measuredMetrics.setSlowQueryThresholdMillis(Long.MAX_VALUE / 1_000_000L);
+	    LongAdder lockWaits = new LongAdder();
+	    LongAdder deadlocks = new LongAdder();
+	    PoolSamples poolSamples = new PoolSamples();
+
+	    long start = System.nanoTime();
+	    long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+	    long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+	    AtomicInteger threadCount = new AtomicInteger();
+	    ExecutorService planners = Executors.newFixedThreadPool(users, runnable -> {
+	        Thread thread = new Thread(runnable, "sprint-planner-" + threadCount.incrementAndGet());
+	        thread.setDaemon(true);
+	        return thread;
+	    });
+	    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+	        Thread thread = new Thread(runnable, "sprint-pool-sampler");
+	        thread.setDaemon(true);
+	        return thread;
+	    });
+	    if (poolProbe != null) {
+	        sampler.scheduleAtFixedRate(() -> {
+	            if (System.nanoTime() >= measureFrom) {
+	                poolSamples.add(poolProbe.active(), poolProbe.waiting(), poolProbe.max());
+	            }
+	        }, POOL_SAMPLE_MILLIS, POOL_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+	    }
+
+	    CountDownLatch done = new CountDownLatch(users);
+	    for (int i = 0; i < users; i++) {
+	        planners.execute(() -> {
+	            try {
+	                ThreadLocalRandom random = ThreadLocalRandom.current();
+	                long now;
+	                while ((now = System.nanoTime()) < end) {
+	                    Operation operation = schedule[random.nextInt(schedule.length)];
+	                    boolean measured = now >= measureFrom;
+	                    try {
+	                        (measured ? measuredMetrics : warmupMetrics).record(operation.name(), "load test",
+	                                () -> execute(operation));
+	                    } catch (RuntimeException e) {
+	                        if (measured) {
+	                            // Lock waits first: a timed-out statement must not be counted as a deadlock
+	                            if (isLockWait(e)) {
+	                                lockWaits.increment();
+	                            } else if (isDeadlock(e)) {
+	                                deadlocks.increment();
+	                            }
+	                        }
+	                    }
+	                    if (thinkTimeMillis > 0) {
+	                        Thread.sleep(thinkTimeMillis);
+	                    }
+	                }
+	            } catch (InterruptedException e) {
+	                Thread.currentThread().interrupt();
+	            } finally {
+	                done.countDown();
+	            }
+	        });
+	    }
+
+	    try {
+	        done.await();
+	    } finally {
+	        planners.shutdownNow();
+	        sampler.shutdownNow();
+	    }
+
+	    Report report = new Report(Instant.now(), users, mix, durationMillis, measuredMetrics.snapshot(),
+	            lockWaits.sum(), deadlocks.sum(), poolProbe == null ? null : poolSamples);
+	    if (logger.isInfoEnabled()) {
+	        logger.info("Load test with {} planners: {} operations/s, {} lock waits, {} deadlocks", users,
+	                report.getOperationsPerSecond(), report.getLockWaits(), report.getDeadlocks());
+	    }
+	    return report;
+	}
+
+	private Object execute(Operation operation) {
+	    switch (operation) {
+	        case GET_BACKLOG:
+	            return sprintDao.getBaskLogs();
+	        case GET_SPRINT_TASKS:
+	            return sprintDao.getAllTasksBySprintId(workload.sprint());
+	        case GET_RESOURCES:
+	            return sprintDao.getAllResources();
+	        case STORE_SPRINT:
+	            return sprintDao.storeSprint(workload.newSprint());
+	        case STORE_TASK:
+	            return sprintDao.storeTask(workload.changedTask());
+	        case UPDATE_FUNCTIONAL_STATUS:
+	            sprintDao.updateFunctionalstatus(workload.functionalUnitId());
+	            return null;
+	        default:
+	            throw new IllegalStateException("Unknown operation " + operation);
+	    }
+	}
+
+	// Expands the weights into a lookup table so picking an operation is a single random index
+	private static Operation[] schedule(Map<Operation, Integer> mix) {
+	    int total = 0;
+	    for (Integer weight : mix.values()) {
+	        if (weight == null || weight < 0) {
+	            throw new IllegalArgumentException("Operation weights must not be negative.");
+	        }
+	        total += weight;
+	    }
+	    if (total == 0) {
+	        throw new IllegalArgumentException("At least one operation needs a positive weight.");
+	    }
+	    Operation[] schedule = new Operation[total];
+	    int index = 0;
+	    for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+	        for (int i = 0; i < entry.getValue(); i++) {
+	            schedule[index++] = entry.getKey();
+	        }
+	    }
+	    return schedule;
+	}
+
+	// Deadlock victims only: PostgreSQL 40P01, MySQL 1213, Oracle ORA-00060 and H2 40001. The rest of
+	// SQLState class 40 (serialization failures, plain rollbacks) is not a deadlock.
+	static boolean isDeadlock(Throwable error) {
+	    for (Throwable t = error; t != null; t = t.getCause()) {
+	        if (t instanceof SQLException) {
+	            SQLException sqlError = (SQLException) t;
+	            int code = sqlError.getErrorCode();
+	            if ("40P01".equals(sqlError.getSQLState()) || code == 1213 || code == 60 || code == 40001) {
+	                return true;
+	            }
+	        }
+	    }
+	    return false;
+	}
+
+	// Lock wait timeouts as the DAO's exception translator classifies them, plus whatever the DAO
+	// reports as a timeout (which also covers statement timeouts)
+	static boolean isLockWait(Throwable error) {
+	    return error instanceof SprintDaoTimeoutException || SprintDaoExceptionTranslator.isLockWaitTimeout(error);
+	}
+
+	private static final class PoolSamples {
+	    private long samples;
+	    private long activeTotal;
+	    private int maxActive;
+	    private int maxWaiting;
+	    private int poolSize;
+	    private long saturated;
+
+	    synchronized void add(int active, int waiting, int max) {
+	        samples++;
+	        activeTotal += active;
+	        maxActive = Math.max(maxActive, active);
+	        maxWaiting = Math.max(maxWaiting, waiting);
+	        poolSize = max;
+	        if (active >= max || waiting > 0) {
+	            saturated++;
+	        }
+	    }
+	}
+
+	// Result of one run; latencies in microseconds as bucket upper bounds of SprintDaoMetrics
+	public static final class Report {
+	    private final Instant finishedAt;
+	    private final int users;
+	    private final Map<Operation, Integer> mix;
+	    private final long durationMillis;
+	    private final Map<String, SprintDaoMetrics.MethodSnapshot> operations;
+	    private final long lockWaits;
+	    private final long deadlocks;
+	    private final PoolSamples pool;
+
+	    Report(Instant finishedAt, int users, Map<Operation, Integer> mix, long durationMillis,
+	            Map<String, SprintDaoMetrics.MethodSnapshot> operations, long lockWaits, long deadlocks, PoolSamples pool) {
+	        this.finishedAt = finishedAt;
+	        this.users = users;
+	        this.mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+	        this.durationMillis = durationMillis;
+	        this.operations = operations;
+	        this.lockWaits = lockWaits;
+	        this.deadlocks = deadlocks;
+	        this.pool = pool;
+	    }
+
+	    public long getOperations() {
+	        long total = 0;
+	        for (SprintDaoMetrics.MethodSnapshot operation : operations.values()) {
+	            total += operation.getCalls();
+	        }
+	        return total;
+	    }
+
+	    public double getOperationsPerSecond() {
+	        return getOperations() * 1000.0 / durationMillis;
+	    }
+
+	    public Map<String, SprintDaoMetrics.MethodSnapshot> getOperationSnapshots() {
+	        return operations;
+	    }
+
+	    public long getLockWaits() {
+	        return lockWaits;
+	    }
+
+	    public long getDeadlocks() {
+	        return deadlocks;
+	    }
+
+	    public String toJson() {
+	        StringBuilder json = new StringBuilder(1024);
+	        json.append("{\n  \"finishedAt\": \"").append(finishedAt).append("\",\n");
+	        json.append("  \"users\": ").append(users).append(",\n");
+	        json.append("  \"durationMillis\": ").append(durationMillis).append(",\n");
+	        json.append("  \"mix\": {");
+	        String separator = "";
+	        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+	            json.append(separator).append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+	            separator = ", ";
+	        }
+	        json.append("},\n");
+	        json.append("  \"operations\": ").append(getOperations()).append(",\n");
+	        json.append("  \"operationsPerSecond\": ").append(String.format(Locale.ROOT, "%.1f", getOperationsPerSecond())).append(",\n");
+	        json.append("  \"lockWaits\": ").append(lockWaits).append(",\n");
+	        json.append("  \"deadlocks\": ").append(deadlocks).append(",\n");
+	        json.append("  \"latency\": {");
+	        separator = "\n";
+	        for (SprintDaoMetrics.MethodSnapshot operation : operations.values()) {
+	            json.append(separator).append("    \"").append(operation.getMethod()).append("\": {")
+	                    .append("\"calls\": ").append(operation.getCalls())
+	                    .append(", \"perSecond\": ").append(String.format(Locale.ROOT, "%.1f", operation.getCalls() * 1000.0 / durationMillis))
+	                    .append(", \"meanMicros\": ").append(operation.getMeanMicros())
+	                    .append(", \"p50Micros\": ").append(operation.getP50Micros())
+	                    .append(", \"p95Micros\": ").append(operation.getP95Micros())
+	                    .append(", \"p99Micros\": ").append(operation.getP99Micros())
+	                    .append(", \"errors\": {");
+	            String errorSeparator = "";
+	            for (Map.Entry<String, Long> error : operation.getErrors().entrySet()) {
+	                json.append(errorSeparator).append('"').append(escape(error.getKey())).append("\": ").append(error.getValue());
+	                errorSeparator = ", ";
+	            }
+	            json.append("}}");
+	            separator = ",\n";
+	        }
+	        json.append(operations.isEmpty() ? "},\n" : "\n  },\n");
+	        if (pool == null) {
+	            json.append("  \"pool\": null\n");
+	        } else {
+	            synchronized (pool) {
+	                json.append("  \"pool\": {\"samples\": ").append(pool.samples)
+	                        .append(", \"size\": ").append(pool.poolSize)
+	                        .append(", \"meanActive\": ").append(String.format(Locale.ROOT, "%.1f", pool.samples == 0 ? 0.0 : (double) pool.activeTotal / pool.samples))
+	                        .append(", \"maxActive\": ").append(pool.maxActive)
+	                        .append(", \"maxWaiting\": ").append(pool.maxWaiting)
+	                        .append(", \"saturatedPercent\": ").append(String.format(Locale.ROOT, "%.1f", pool.samples == 0 ? 0.0 : pool.saturated * 100.0 / pool.samples))
+	                        .append("}\n");
+	            }
+	        }
+	        return json.append("}\n").toString();
+	    }
+
+	    public void writeTo(Path file) throws IOException {
+	        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+	    }
+
+	    private static String escape(String value) {
+	        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	    }
+	}
+}
@@ -0,0 +1,299 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pennant.prodmtr.model.Dto.BatchInsertSummary;
+import com.pennant.prodmtr.model.Dto.ChangeFeed;
+
+// Per-method instrumentation for SprintDaoImpl: call latency and returned-row histograms, error
+// counts by exception type and a slow-query log carrying the JPQL and its parameters.
+// Histograms use fixed exponential buckets, so recording never allocates and percentiles are bucket
+// upper bounds. A Listener can be registered to forward every observation to Micrometer or similar.
+public class SprintDaoMetrics {
+
+	private static final Logger logger = LoggerFactory.getLogger(SprintDaoMetrics.class);
+
+	// Latency bucket upper bounds in microseconds: 50us, 100us, 200us ... about 52s
+	private static final long[] LATENCY_BOUNDS_MICROS = exponentialBounds(50, 21);
+
+	// Row count bucket upper bounds: 0, 1, 2, 4 ... 65536
+	private static final long[] ROW_BOUNDS = rowBounds(18);
+
+	// Rows reported for results whose size is unknown when the call returns (streams)
+	public static final int UNKNOWN_ROWS = -1;
+
+	// Receives every observation, e.g. to feed Micrometer timers, distribution summaries and counters
+	public interface Listener {
+	    void onSuccess(String method, long elapsedNanos, int rows);
+
+	    void onError(String method, long elapsedNanos, Throwable error);
+	}
+
+	private final ConcurrentMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+	private volatile long slowQueryThresholdNanos = 500 * 1_000_000L;
+	private volatile Listener listener;
+
+	public void setSlowQueryThresholdMillis(long thresholdMillis) {
+	    this.slowQueryThresholdNanos = thresholdMillis * 1_000_000L;
+	}
+
+	public void setListener(Listener listener) {
+	    this.listener = listener;
+	}
+
+	// Runs call as one observation of method. jpql and params only show up in the slow-query log.
+	<T> T record(String method, String jpql, Supplier<T> call, Object... params) {
+	    return record(method, jpql, call, SprintDaoMetrics::rowCount, params);
+	}
+
+	// Same, with the row count taken from the result by rowCount, for results that do not carry it
+	// themselves (e.g. an int that is a version number rather than an update count)
+	<T> T record(String method, String jpql, Supplier<T> call, ToIntFunction<? super T> rowCount,
+	        Object... params) {
+	    long start = System.nanoTime();
+	    T result;
+	    try {
+	        result = call.get();
+	    } catch (RuntimeException | Error e) {
+	        long elapsed = System.nanoTime() - start;
+	        stats(method).recordError(elapsed, e);
+	        logIfSlow(method, jpql, params, elapsed);
+	        Listener l = listener;
+	        if (l != null) {
+	            l.onError(method, elapsed, e);
+	        }
+	        throw e;
+	    }
+	    long elapsed = System.nanoTime() - start;
+	    int rows = rowCount.applyAsInt(result);
+	    stats(method).recordSuccess(elapsed, rows);
+	    logIfSlow(method, jpql, params, elapsed);
+	    Listener l = listener;
+	    if (l != null) {
+	        l.onSuccess(method, elapsed, rows);
+	    }
+	    return result;
+	}
+
+	void run(String method, String jpql, Runnable call, Object... params) {
+	    record(method, jpql, () -> {
+	        call.run();
+	        return null;
+	    }, params);
+	}
+
+	public Map<String, MethodSnapshot> snapshot() {
+	    Map<String, MethodSnapshot> snapshot = new TreeMap<>();
+	    methods.forEach((method, stats) -> snapshot.put(method, stats.snapshot(method)));
+	    return snapshot;
+	}
+
+	private MethodStats stats(String method) {
+	    MethodStats stats = methods.get(method);
+	    return stats != null ? stats : methods.computeIfAbsent(method, m -> new MethodStats());
+	}
+
+	private void logIfSlow(String method, String jpql, Object[] params, long elapsedNanos) {
+	    if (elapsedNanos >= slowQueryThresholdNanos && logger.isWarnEnabled()) {
+	        logger.warn("Slow DAO call {} took {} ms: {} with parameters {}", method, elapsedNanos / 1_000_000, jpql,
+	                Arrays.toString(params));
+	    }
+	}
+
+	private static int rowCount(Object result) {
+	    if (result == null) {
+	        return 0;
+	    }
+	    if (result instanceof Collection) {
+	        return ((Collection<?>) result).size();
+	    }
+	    // Update counts; methods returning other ints pass their own row count
+	    if (result instanceof Integer) {
+	        return (Integer) result;
+	    }
+	    if (result instanceof BatchInsertSummary) {
+	        return ((BatchInsertSummary) result).getTotalRows();
+	    }
+	    if (result instanceof ChangeFeed) {
+	        return ((ChangeFeed<?>) result).getChanges().size();
+	    }
+	    if (result instanceof Stream) {
+	        return UNKNOWN_ROWS;
+	    }
+	    return 1;
+	}
+
+	private static int bucket(long[] bounds, long value) {
+	    int index = Arrays.binarySearch(bounds, value);
+	    return index >= 0 ? index : Math.min(-index - 1, bounds.length - 1);
+	}
+
+	private static long percentile(long[] bounds, long[] counts, long total, double quantile) {
+	    if (total == 0) {
+	        return 0;
+	    }
+	    long rank = (long) Math.ceil(quantile * total);
+	    long seen = 0;
+	    for (int i = 0; i < counts.length; i++) {
+	        seen += counts[i];
+	        if (seen >= rank) {
+	            return bounds[i];
+	        }
+	    }
+	    return bounds[bounds.length - 1];
+	}
+
+	private static long[] exponentialBounds(long first, int count) {
+	    long[] bounds = new long[count];
+	    for (int i = 0; i < count; i++) {
+	        bounds[i] = first << i;
+	    }
+	    return bounds;
+	}
+
+	private static long[] rowBounds(int count) {
+	    long[] bounds = new long[count];
+	    for (int i = 1; i < count; i++) {
+	        bounds[i] = 1L << (i - 1);
+	    }
+	    return bounds;
+	}
+
+	private static final class MethodStats {
+	    final LongAdder calls = new LongAdder();
+	    final LongAdder totalNanos = new LongAdder();
+	    final AtomicLongArray latency = new AtomicLongArray(LATENCY_BOUNDS_MICROS.length);
+	    final AtomicLongArray rows = new AtomicLongArray(ROW_BOUNDS.length);
+	    final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+	    void recordSuccess(long elapsedNanos, int rowCount) {
+	        recordLatency(elapsedNanos);
+	        if (rowCount >= 0) {
+	            rows.incrementAndGet(bucket(ROW_BOUNDS, rowCount));
+	        }
+	    }
+
+	    void recordError(long elapsedNanos, Throwable error) {
+	        recordLatency(elapsedNanos);
+	        errors.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder()).increment();
+	    }
+
+	    private void recordLatency(long elapsedNanos) {
+	        calls.increment();
+	        totalNanos.add(elapsedNanos);
+	        latency.incrementAndGet(bucket(LATENCY_BOUNDS_MICROS, elapsedNanos / 1000));
+	    }
+
+	    MethodSnapshot snapshot(String method) {
+	        long[] latencyCounts = toArray(latency);
+	        long[] rowCounts = toArray(rows);
+	        long count = 0;
+	        for (long c : latencyCounts) {
+	            count += c;
+	        }
+	        long rowObservations = 0;
+	        for (long c : rowCounts) {
+	            rowObservations += c;
+	        }
+	        Map<String, Long> errorCounts = new TreeMap<>();
+	        errors.forEach((type, adder) -> errorCounts.put(type, adder.sum()));
+	        return new MethodSnapshot(method, calls.sum(), count == 0 ? 0 : totalNanos.sum() / count / 1000,
+	                percentile(LATENCY_BOUNDS_MICROS, latencyCounts, count, 0.50),
+	                percentile(LATENCY_BOUNDS_MICROS, latencyCounts, count, 0.95),
+	                percentile(LATENCY_BOUNDS_MICROS, latencyCounts, count, 0.99),
+	                percentile(ROW_BOUNDS, rowCounts, rowObservations, 0.50),
+	                percentile(ROW_BOUNDS, rowCounts, rowObservations, 0.99), errorCounts);
+	    }
+
+	    private static long[] toArray(AtomicLongArray array) {
+	        long[] values = new long[array.length()];
+	        for (int i = 0; i < values.length; i++) {
+	            values[i] = array.get(i);
+	        }
+	        return values;
+	    }
+	}
+
+	// Point-in-time view of one DAO method; latencies in microseconds, percentiles as bucket bounds
+	public static final class MethodSnapshot {
+	    private final String method;
+	    private final long calls;
+	    private final long meanMicros;
+	    private final long p50Micros;
+	    private final long p95Micros;
+	    private final long p99Micros;
+	    private final long p50Rows;
+	    private final long p99Rows;
+	    private final Map<String, Long> errors;
+
+	    MethodSnapshot(String method, long calls, long meanMicros, long p50Micros, long p95Micros, long p99Micros,
+	            long p50Rows, long p99Rows, Map<String, Long> errors) {
+	        this.method = method;
+	        this.calls = calls;
+	        this.meanMicros = meanMicros;
+	        this.p50Micros = p50Micros;
+	        this.p95Micros = p95Micros;
+	        this.p99Micros = p99Micros;
+	        this.p50Rows = p50Rows;
+	        this.p99Rows = p99Rows;
+	        this.errors = Collections.unmodifiableMap(errors);
+	    }
+
+	    public String getMethod() {
+	        return method;
+	    }
+
+	    public long getCalls() {
+	        return calls;
+	    }
+
+	    public long getMeanMicros() {
+	        return meanMicros;
+	    }
+
+	    public long getP50Micros() {
+	        return p50Micros;
+	    }
+
+	    public long getP95Micros() {
+	        return p95Micros;
+	    }
+
+	    public long getP99Micros() {
+	        return p99Micros;
+	    }
+
+	    public long getP50Rows() {
+	        return p50Rows;
+	    }
+
+	    public long getP99Rows() {
+	        return p99Rows;
+	    }
+
+	    public Map<String, Long> getErrors() {
+	        return errors;
+	    }
+
+	    @Override
+	    public String toString() {
+	        return method + " [calls=" + calls + ", meanMicros=" + meanMicros + ", p50Micros=" + p50Micros
+	                + ", p95Micros=" + p95Micros + ", p99Micros=" + p99Micros + ", p50Rows=" + p50Rows + ", p99Rows="
+	                + p99Rows + ", errors=" + errors + "]";
+	    }
+	}
+}
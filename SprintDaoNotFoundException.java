@@ -0,0 +1,11 @@
+package com.pennant.prodmtr.Dao.Interface;
+
+// The requested row does not exist or no longer exists.
+public class SprintDaoNotFoundException extends SprintDaoException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SprintDaoNotFoundException(String operation, String message, Throwable cause) {
+	    super(operation, message, cause);
+	}
+}
@@ -0,0 +1,11 @@
+package com.pennant.prodmtr.Dao.Interface;
+
+// A query or lock wait ran out of time; the database may be overloaded.
+public class SprintDaoTimeoutException extends SprintDaoException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SprintDaoTimeoutException(String operation, String message, Throwable cause) {
+	    super(operation, message, cause);
+	}
+}
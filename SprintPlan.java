@@ -0,0 +1,76 @@
+package com.pennant.prodmtr.model.Dto;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.SprintResource;
+import com.pennant.prodmtr.model.Entity.SprintTasks;
+import com.pennant.prodmtr.model.Entity.Task;
+
+// Everything needed to provision a sprint in one unit of work: the new sprint, the tasks created for
+// its functional units, the functional units whose status changes, and the resources to assign.
+// The factories build the SprintTasks / SprintResource rows once the sprint and tasks have their
+// generated ids, so the ids never have to be looked up again.
+public class SprintPlan {
+
+	public static final String DEFAULT_FUNCTIONAL_UNIT_STATUS = "Task";
+
+	private final Sprint sprint;
+	private final List<Task> tasks;
+	private final Collection<Integer> functionalUnitIds;
+	private final String functionalUnitStatus;
+	private final Collection<Integer> resourceIds;
+	private final BiFunction<Sprint, Task, SprintTasks> sprintTaskFactory;
+	private final BiFunction<Sprint, Integer, SprintResource> sprintResourceFactory;
+
+	public SprintPlan(Sprint sprint, List<Task> tasks, Collection<Integer> functionalUnitIds,
+	        Collection<Integer> resourceIds, BiFunction<Sprint, Task, SprintTasks> sprintTaskFactory,
+	        BiFunction<Sprint, Integer, SprintResource> sprintResourceFactory) {
+	    this(sprint, tasks, functionalUnitIds, DEFAULT_FUNCTIONAL_UNIT_STATUS, resourceIds, sprintTaskFactory,
+	            sprintResourceFactory);
+	}
+
+	public SprintPlan(Sprint sprint, List<Task> tasks, Collection<Integer> functionalUnitIds,
+	        String functionalUnitStatus, Collection<Integer> resourceIds,
+	        BiFunction<Sprint, Task, SprintTasks> sprintTaskFactory,
+	        BiFunction<Sprint, Integer, SprintResource> sprintResourceFactory) {
+	    this.sprint = sprint;
+	    this.tasks = tasks != null ? tasks : Collections.<Task>emptyList();
+	    this.functionalUnitIds = functionalUnitIds != null ? functionalUnitIds : Collections.<Integer>emptyList();
+	    this.functionalUnitStatus = functionalUnitStatus;
+	    this.resourceIds = resourceIds != null ? resourceIds : Collections.<Integer>emptyList();
+	    this.sprintTaskFactory = sprintTaskFactory;
+	    this.sprintResourceFactory = sprintResourceFactory;
+	}
+
+	public Sprint getSprint() {
+	    return sprint;
+	}
+
+	public List<Task> getTasks() {
+	    return tasks;
+	}
+
+	public Collection<Integer> getFunctionalUnitIds() {
+	    return functionalUnitIds;
+	}
+
+	public String getFunctionalUnitStatus() {
+	    return functionalUnitStatus;
+	}
+
+	public Collection<Integer> getResourceIds() {
+	    return resourceIds;
+	}
+
+	public BiFunction<Sprint, Task, SprintTasks> getSprintTaskFactory() {
+	    return sprintTaskFactory;
+	}
+
+	public BiFunction<Sprint, Integer, SprintResource> getSprintResourceFactory() {
+	    return sprintResourceFactory;
+	}
+}
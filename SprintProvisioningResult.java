@@ -0,0 +1,68 @@
+package com.pennant.prodmtr.model.Dto;
+
+import com.pennant.prodmtr.model.Entity.Sprint;
+
+// Outcome of provisioning a SprintPlan: row counts and the time spent in each stage, in milliseconds
+public class SprintProvisioningResult {
+
+	private final Sprint sprint;
+	private final BatchInsertSummary tasks;
+	private final int functionalUnitsUpdated;
+	private final BatchInsertSummary sprintTasks;
+	private final BatchInsertSummary sprintResources;
+	private final long sprintMillis;
+	private final long functionalUnitMillis;
+
+	public SprintProvisioningResult(Sprint sprint, long sprintMillis, BatchInsertSummary tasks,
+	        int functionalUnitsUpdated, long functionalUnitMillis, BatchInsertSummary sprintTasks,
+	        BatchInsertSummary sprintResources) {
+	    this.sprint = sprint;
+	    this.sprintMillis = sprintMillis;
+	    this.tasks = tasks;
+	    this.functionalUnitsUpdated = functionalUnitsUpdated;
+	    this.functionalUnitMillis = functionalUnitMillis;
+	    this.sprintTasks = sprintTasks;
+	    this.sprintResources = sprintResources;
+	}
+
+	public Sprint getSprint() {
+	    return sprint;
+	}
+
+	public long getSprintMillis() {
+	    return sprintMillis;
+	}
+
+	public BatchInsertSummary getTasks() {
+	    return tasks;
+	}
+
+	public int getFunctionalUnitsUpdated() {
+	    return functionalUnitsUpdated;
+	}
+
+	public long getFunctionalUnitMillis() {
+	    return functionalUnitMillis;
+	}
+
+	public BatchInsertSummary getSprintTasks() {
+	    return sprintTasks;
+	}
+
+	public BatchInsertSummary getSprintResources() {
+	    return sprintResources;
+	}
+
+	public long getTotalMillis() {
+	    return sprintMillis + tasks.getTotalMillis() + functionalUnitMillis + sprintTasks.getTotalMillis()
+	            + sprintResources.getTotalMillis();
+	}
+
+	@Override
+	public String toString() {
+	    return "SprintProvisioningResult [sprintId=" + sprint.getSprintId() + ", sprintMillis=" + sprintMillis
+	            + ", tasks=" + tasks + ", functionalUnitsUpdated=" + functionalUnitsUpdated
+	            + ", functionalUnitMillis=" + functionalUnitMillis + ", sprintTasks=" + sprintTasks
+	            + ", sprintResources=" + sprintResources + "]";
+	}
+}
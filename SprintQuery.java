@@ -0,0 +1,172 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import com.pennant.prodmtr.model.Entity.FunctionalUnit;
+import com.pennant.prodmtr.model.Entity.Module;
+import com.pennant.prodmtr.model.Entity.Sprint;
+import com.pennant.prodmtr.model.Entity.SprintTasks;
+import com.pennant.prodmtr.model.Entity.Task;
+import com.pennant.prodmtr.model.Entity.User;
+
+// Every static JPQL statement of SprintDaoImpl. SprintQueryRegistry compiles them once at startup and
+// registers them as named queries, so the DAO never parses JPQL on the request path and a broken
+// statement fails the boot instead of the first request. A null result type marks an UPDATE.
+//
+// A trailing true marks a query over attributes that not every deployment maps yet (lastModified,
+// Task.assignedTo, User.userId, the SprintResource id). Such a query is skipped with a warning when it
+// does not compile, and only the DAO methods that use it fail.
+enum SprintQuery {
+
+	// Backlog sprints: those whose module has an open task. The modules with open tasks are grouped once
+	// from the index on Task (module, taskCompletedDateTime), the same grouping BACKLOG_OPEN_TASK_COUNTS
+	// counts with, instead of probing Task once per sprint row with a correlated EXISTS.
+	BACKLOG_SPRINTS(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE s.moduleId.id IN ("
+	            + "SELECT t.module.id FROM Task t WHERE t.taskCompletedDateTime IS NULL GROUP BY t.module.id)"),
+
+	BACKLOG_SPRINTS_ORDERED(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE s.moduleId.id IN ("
+	            + "SELECT t.module.id FROM Task t WHERE t.taskCompletedDateTime IS NULL GROUP BY t.module.id) "
+	            + "ORDER BY s.sprintId"),
+
+	BACKLOG_SPRINT_PAGE(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE s.sprintId > :lastSprintId AND s.moduleId.id IN ("
+	            + "SELECT t.module.id FROM Task t WHERE t.taskCompletedDateTime IS NULL GROUP BY t.module.id) "
+	            + "ORDER BY s.sprintId"),
+
+	BACKLOG_OPEN_TASK_COUNTS(Object[].class,
+	        "SELECT s.sprintId, s.moduleId.id, s.projectId.projectId, COUNT(t) FROM Sprint s, Task t "
+	            + "WHERE t.module.id = s.moduleId.id AND t.taskCompletedDateTime IS NULL "
+	            + "GROUP BY s.sprintId, s.moduleId.id, s.projectId.projectId ORDER BY s.sprintId"),
+
+	ALL_SPRINTS(Sprint.class,
+	        "SELECT s FROM Sprint s"),
+
+	ALL_SPRINTS_ORDERED(Sprint.class,
+	        "SELECT s FROM Sprint s ORDER BY s.sprintId"),
+
+	SPRINT_PAGE(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE s.sprintId > :lastSprintId ORDER BY s.sprintId"),
+
+	SPRINTS_BY_PROJECT(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE projectId.projectId = :projId"),
+
+	TASKS_BY_MODULE(Task.class,
+	        "SELECT t FROM Task t WHERE t.module.id = :modlId"),
+
+	TASKS_BY_SPRINT(SprintTasks.class,
+	        "SELECT st FROM SprintTasks st WHERE st.id.sprnId = :sprintId"),
+
+	// TaskFetchProfile variants of the two queries above, one per profile. The task is reached through
+	// the embedded id, which an entity graph cannot traverse, so the associations are join-fetched here.
+	TASKS_BY_MODULE_SUMMARY(Task.class,
+	        "SELECT t FROM Task t JOIN FETCH t.module WHERE t.module.id = :modlId"),
+
+	TASKS_BY_MODULE_BOARD(Task.class,
+	        "SELECT t FROM Task t JOIN FETCH t.module LEFT JOIN FETCH t.assignedTo LEFT JOIN FETCH t.functionalUnit "
+	            + "WHERE t.module.id = :modlId", true),
+
+	TASKS_BY_SPRINT_SUMMARY(SprintTasks.class,
+	        "SELECT st FROM SprintTasks st JOIN FETCH st.id.sprnId JOIN FETCH st.id.taskId t LEFT JOIN FETCH t.module "
+	            + "WHERE st.id.sprnId = :sprintId"),
+
+	TASKS_BY_SPRINT_BOARD(SprintTasks.class,
+	        "SELECT st FROM SprintTasks st JOIN FETCH st.id.sprnId JOIN FETCH st.id.taskId t LEFT JOIN FETCH t.module "
+	            + "LEFT JOIN FETCH t.assignedTo LEFT JOIN FETCH t.functionalUnit WHERE st.id.sprnId = :sprintId", true),
+
+	UNASSIGNED_MODULES(Module.class,
+	        "SELECT m FROM com.pennant.prodmtr.model.Entity.Module m WHERE m.moduleProject.projectId = :projectId "
+	            + "AND NOT EXISTS (SELECT 1 FROM com.pennant.prodmtr.model.Entity.Sprint s WHERE s.moduleId.id = m.moduleId AND s.projectId.projectId = :projectId) "
+	            + "ORDER BY m.moduleId"),
+
+	OPEN_FUNCTIONAL_UNITS(FunctionalUnit.class,
+	        "SELECT fu FROM FunctionalUnit fu WHERE fu.id.module.id = :modlId AND fu.projectId.projectId = :prjid AND fu.funStatus is null"),
+
+	ALL_RESOURCES(User.class,
+	        "SELECT r FROM User r"),
+
+	ALL_RESOURCES_ORDERED(User.class,
+	        "SELECT r FROM User r ORDER BY r.userId", true),
+
+	RESOURCE_PAGE(User.class,
+	        "SELECT r FROM User r WHERE r.userId > :lastUserId ORDER BY r.userId", true),
+
+	// The reports count the tasks linked to the sprint through SprintTasks, not every task of the
+	// sprint's module, so tasks of the same module planned into another sprint are left out
+	SPRINT_COMPLETIONS_BY_DAY(Object[].class,
+	        "SELECT CAST(t.taskCompletedDateTime AS date), COUNT(t) FROM SprintTasks st JOIN st.id.taskId t "
+	            + "WHERE st.id.sprnId.sprintId = :sprintId "
+	            + "GROUP BY CAST(t.taskCompletedDateTime AS date) ORDER BY CAST(t.taskCompletedDateTime AS date)"),
+
+	COMPLETED_TASKS_PER_SPRINT(Object[].class,
+	        "SELECT s.sprintId, COUNT(t) FROM SprintTasks st JOIN st.id.sprnId s JOIN st.id.taskId t "
+	            + "WHERE s.projectId.projectId = :projId AND t.taskCompletedDateTime IS NOT NULL "
+	            + "GROUP BY s.sprintId ORDER BY s.sprintId"),
+
+	OPEN_TASKS_PER_RESOURCE(Object[].class,
+	        "SELECT sr.id.userId.id, COUNT(t) FROM SprintResource sr, SprintTasks st JOIN st.id.taskId t "
+	            + "WHERE sr.id.sprnId.sprintId = :sprintId AND st.id.sprnId = sr.id.sprnId "
+	            + "AND t.assignedTo = sr.id.userId AND t.taskCompletedDateTime IS NULL "
+	            + "GROUP BY sr.id.userId.id ORDER BY sr.id.userId.id", true),
+
+	SPRINT_CHANGES(Sprint.class,
+	        "SELECT s FROM Sprint s WHERE s.lastModified > :since ORDER BY s.lastModified", true),
+
+	TASK_CHANGES(Task.class,
+	        "SELECT t FROM Task t WHERE t.module.id = :modlId AND t.lastModified > :since ORDER BY t.lastModified", true),
+
+	SPRINT_TASK_CHANGES(SprintTasks.class,
+	        "SELECT st FROM SprintTasks st WHERE st.id.sprnId = :sprintId AND st.lastModified > :since ORDER BY st.lastModified", true),
+
+	SPRINT_BOARD_MODULE(Object[].class,
+	        "SELECT s.sprintId, s.moduleId.id FROM Sprint s WHERE s.sprintId = :sprintId"),
+
+	SPRINT_BOARD_TASKS(Object[].class,
+	        "SELECT t.taskId, t.taskCompletedDateTime, u.id FROM SprintTasks st JOIN st.id.taskId t LEFT JOIN t.assignedTo u "
+	            + "WHERE st.id.sprnId.sprintId = :sprintId ORDER BY t.taskId", true),
+
+	SPRINT_BOARD_TASK(Object[].class,
+	        "SELECT st.id.sprnId.sprintId, t.taskCompletedDateTime, u.id FROM SprintTasks st JOIN st.id.taskId t "
+	            + "LEFT JOIN t.assignedTo u WHERE t.taskId = :taskId", true),
+
+	SPRINT_BOARD_RESOURCES(Number.class,
+	        "SELECT sr.id.userId.id FROM SprintResource sr WHERE sr.id.sprnId.sprintId = :sprintId", true),
+
+	SPRINT_RESOURCE_KEY(Object[].class,
+	        "SELECT sr.id.sprnId.sprintId, sr.id.userId.id FROM SprintResource sr WHERE sr = :resource", true),
+
+	UPDATE_FUNCTIONAL_STATUS(null,
+	        "UPDATE FunctionalUnit f SET f.funStatus = :status WHERE f.id.funitid = :funit"),
+
+	UPDATE_FUNCTIONAL_STATUS_IN(null,
+	        "UPDATE FunctionalUnit f SET f.funStatus = :status WHERE f.id.funitid IN :funits");
+
+	private final Class<?> resultType;
+	private final String jpql;
+	private final boolean optional;
+
+	SprintQuery(Class<?> resultType, String jpql) {
+	    this(resultType, jpql, false);
+	}
+
+	SprintQuery(Class<?> resultType, String jpql, boolean optional) {
+	    this.resultType = resultType;
+	    this.jpql = jpql;
+	    this.optional = optional;
+	}
+
+	String getQueryName() {
+	    return "SprintDao." + name();
+	}
+
+	Class<?> getResultType() {
+	    return resultType;
+	}
+
+	String getJpql() {
+	    return jpql;
+	}
+
+	boolean isOptional() {
+	    return optional;
+	}
+}
@@ -0,0 +1,129 @@
+package com.pennant.prodmtr.Dao.Impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Compiles every SprintQuery once and registers it on the EntityManagerFactory as a named query. After
+// registration createNamedQuery only looks the statement up, so no JPQL is parsed per call and the
+// translated SQL string stays identical across calls, which is what lets the driver and the database
+// reuse their prepared statement and plan. A statement that does not compile aborts startup, unless the
+// query is marked optional: then it is left unregistered with a warning, and SprintDaoImpl compiles it
+// on use, so only the methods that need the missing mapping fail.
+public final class SprintQueryRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(SprintQueryRegistry.class);
+
+	// Driver-side prepared statement cache, per connection
+	public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 250;
+	public static final int DEFAULT_PREPARED_STATEMENT_SQL_LIMIT = 2048;
+
+	private SprintQueryRegistry() {
+	}
+
+	// Registers every SprintQuery and returns the compile time of each one in microseconds, keyed by
+	// query name in declaration order. Optional queries that do not compile are left out of the map.
+	static Map<String, Long> registerAll(EntityManagerFactory entityManagerFactory) {
+	    Map<String, Long> compileMicros = new LinkedHashMap<>();
+	    EntityManager entityManager = entityManagerFactory.createEntityManager();
+	    try {
+	        for (SprintQuery sprintQuery : SprintQuery.values()) {
+	            long start = System.nanoTime();
+	            Query query;
+	            try {
+	                query = sprintQuery.getResultType() == null
+	                        ? entityManager.createQuery(sprintQuery.getJpql())
+	                        : entityManager.createQuery(sprintQuery.getJpql(), sprintQuery.getResultType());
+	            } catch (IllegalArgumentException | PersistenceException e) {
+	                if (sprintQuery.isOptional()) {
+	                    logger.warn("Query {} does not compile against this mapping and is not registered: {} ({})",
+	                            sprintQuery.getQueryName(), sprintQuery.getJpql(), e.getMessage());
+	                    continue;
+	                }
+	                logger.error("Query {} does not compile: {}", sprintQuery.getQueryName(), sprintQuery.getJpql(), e);
+	                throw new IllegalStateException("Query " + sprintQuery.getQueryName() + " does not compile", e);
+	            }
+	            entityManagerFactory.addNamedQuery(sprintQuery.getQueryName(), query);
+	            compileMicros.put(sprintQuery.getQueryName(), (System.nanoTime() - start) / 1_000L);
+	        }
+	    } finally {
+	        entityManager.close();
+	    }
+
+	    long totalMicros = 0;
+	    for (Long micros : compileMicros.values()) {
+	        totalMicros += micros;
+	    }
+	    logger.info("Registered {} named queries in {} ms", compileMicros.size(), totalMicros / 1_000L);
+	    if (logger.isDebugEnabled()) {
+	        for (Map.Entry<String, Long> entry : compileMicros.entrySet()) {
+	            logger.debug("Compiled {} in {} us", entry.getKey(), entry.getValue());
+	        }
+	    }
+	    return Collections.unmodifiableMap(compileMicros);
+	}
+
+	// JPA properties for the persistence unit. Hibernate keeps compiled query plans in an LRU cache of
+	// 2048 plans by default; the IN-list updates would add one plan per distinct list size, so IN lists
+	// are rendered padded to the next power of two and share a few plans. The plan cache itself is left
+	// at Hibernate's default, which is ample for this DAO.
+	public static Properties jpaProperties() {
+	    Properties properties = new Properties();
+	    properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
+	    return properties;
+	}
+
+	// Same, with the plan cache resized for persistence units whose other queries need more room
+	public static Properties jpaProperties(int planCacheSize) {
+	    if (planCacheSize <= 0) {
+	        throw new IllegalArgumentException("Plan cache size must be positive.");
+	    }
+	    Properties properties = jpaProperties();
+	    properties.setProperty("hibernate.query.plan_cache_max_size", String.valueOf(planCacheSize));
+	    return properties;
+	}
+
+	// JPA properties that turn on the second-level and query caches that getSprintDetails and
+	// getSprintByProjId read through. regionFactoryClass names the cache provider, e.g.
+	// "org.hibernate.cache.jcache.JCacheRegionFactory"; Sprint must also be marked @Cacheable.
+	public static Properties secondLevelCacheProperties(String regionFactoryClass) {
+	    if (regionFactoryClass == null || regionFactoryClass.isEmpty()) {
+	        throw new IllegalArgumentException("A cache region factory is required.");
+	    }
+	    Properties properties = new Properties();
+	    properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+	    properties.setProperty("hibernate.cache.use_query_cache", "true");
+	    properties.setProperty("hibernate.cache.region.factory_class", regionFactoryClass);
+	    properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+	    return properties;
+	}
+
+	// Data source properties that turn on the driver's prepared statement cache (MySQL Connector/J
+	// names, also understood by HikariCP's dataSource.* passthrough). useCursorFetch makes Connector/J
+	// honour the fetch size of the streaming reads; without it the driver buffers the whole result set.
+	public static Properties dataSourceProperties(int statementCacheSize) {
+	    if (statementCacheSize <= 0) {
+	        throw new IllegalArgumentException("Statement cache size must be positive.");
+	    }
+	    Properties properties = new Properties();
+	    properties.setProperty("cachePrepStmts", "true");
+	    properties.setProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+	    properties.setProperty("prepStmtCacheSqlLimit", String.valueOf(DEFAULT_PREPARED_STATEMENT_SQL_LIMIT));
+	    properties.setProperty("useServerPrepStmts", "true");
+	    properties.setProperty("useCursorFetch", "true");
+	    return properties;
+	}
+
+	public static Properties dataSourceProperties() {
+	    return dataSourceProperties(DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+	}
+}
@@ -0,0 +1,28 @@
+package com.pennant.prodmtr.model.Dto;
+
+// Completed tasks per sprint of one project, ordered by sprint id. Sprints without any completed task
+// are not listed. Arrays are parallel: completedTasks[i] belongs to sprintIds[i].
+public class SprintVelocityDTO {
+
+	private final int projectId;
+	private final int[] sprintIds;
+	private final long[] completedTasks;
+
+	public SprintVelocityDTO(int projectId, int[] sprintIds, long[] completedTasks) {
+	    this.projectId = projectId;
+	    this.sprintIds = sprintIds;
+	    this.completedTasks = completedTasks;
+	}
+
+	public int getProjectId() {
+	    return projectId;
+	}
+
+	public int[] getSprintIds() {
+	    return sprintIds.clone();
+	}
+
+	public long[] getCompletedTasks() {
+	    return completedTasks.clone();
+	}
+}
@@ -0,0 +1,23 @@
+package com.pennant.prodmtr.Dao.Interface;
+
+// Association sets that the task read methods of SprintDao fetch in the same query as the tasks.
+// Attribute names are those of the Task mapping; each profile has its own join-fetch queries in
+// SprintQuery (TASKS_BY_MODULE_* and TASKS_BY_SPRINT_*), which must list the same attributes.
+public enum TaskFetchProfile {
+
+	// Task list with its module only
+	SUMMARY("module"),
+
+	// Sprint board: module, assignee and functional unit of every task
+	BOARD("module", "assignedTo", "functionalUnit");
+
+	private final String[] taskAttributes;
+
+	TaskFetchProfile(String... taskAttributes) {
+	    this.taskAttributes = taskAttributes;
+	}
+
+	public String[] getTaskAttributes() {
+	    return taskAttributes.clone();
+	}
+}
@@ -0,0 +1,9 @@
+package com.pennant.prodmtr.model.Entity;
+
+// Implemented by entities with an optimistic-lock column (Sprint, Task). The attribute must be named
+// version and mapped with @Version, so that merge detects concurrent edits and the update-by-id
+// paths of SprintDaoImpl can compare and increment it in a single statement.
+public interface Versioned {
+
+	int getVersion();
+}